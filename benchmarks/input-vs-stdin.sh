@@ -0,0 +1,42 @@
+#!/bin/sh
+# Compares converting a large generated file through standard input (--stream) against memory mapping it and
+# converting it on all processors (--input).
+#
+# usage: benchmarks/input-vs-stdin.sh [lines] [runs]
+#
+# Run from the project directory after "mvn clean package".
+
+LINES=${1:-5000000}
+RUNS=${2:-3}
+JAR=target/numbers-1.0-SNAPSHOT-jar-with-dependencies.jar
+INPUT=target/benchmark-input.txt
+
+if [ ! -f "$JAR" ]; then
+    echo "Build the project first with: mvn clean package" >&2
+    exit 1
+fi
+
+if [ ! -f "$INPUT" ] || [ "$(wc -l < "$INPUT")" -ne "$LINES" ]; then
+    echo "Generating $LINES lines into $INPUT"
+    awk -v lines="$LINES" 'BEGIN {
+        srand(42);
+        for (i = 0; i < lines; i++) {
+            printf "%d\n", (rand() - 0.5) * 4294967295;
+        }
+    }' > "$INPUT"
+fi
+
+# Wall clock time of a command in milliseconds
+elapsed() {
+    start=$(date +%s%N)
+    "$@" > /dev/null
+    end=$(date +%s%N)
+    echo $(( (end - start) / 1000000 ))
+}
+
+echo "$(wc -c < "$INPUT") bytes, $LINES lines, $(nproc) processors"
+for run in $(seq 1 "$RUNS"); do
+    stdin=$(elapsed sh -c "java -jar $JAR --stream < $INPUT")
+    mapped=$(elapsed java -jar "$JAR" --input "$INPUT")
+    echo "run $run: stdin --stream ${stdin} ms, --input ${mapped} ms"
+done
@@ -0,0 +1,97 @@
+package com.takehome.numbers.benchmarks;
+
+import com.takehome.numbers.IntegerToEnglishWordConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks converting an int into English words for small, mid-size and the largest (Integer.MIN_VALUE sized)
+ * values, through each of the outputs the converter supports. The long conversion is measured with values of the same
+ * sizes, except that the largest are Long.MIN_VALUE sized.
+ *
+ * @author jeff.snyder
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConverterBenchmark {
+
+    // Number of different values cycled through, so the JIT can not specialise on a single value
+    private static final int VALUES = 1024;
+
+    @Param({"small", "mid", "large"})
+    public String size;
+
+    private final IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+    private final StringBuilder words = new StringBuilder(IntegerToEnglishWordConverter.MAX_LONG_LENGTH);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(IntegerToEnglishWordConverter.MAX_LONG_LENGTH);
+    private int[] values;
+    private long[] longValues;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        values = new int[VALUES];
+        longValues = new long[VALUES];
+        for (int i=0; i<VALUES; i++) {
+            switch (size) {
+                case "small":
+                    values[i] = random.nextInt(100);
+                    break;
+                case "mid":
+                    values[i] = 1000 + random.nextInt(999000);
+                    break;
+                case "large":
+                    values[i] = Integer.MIN_VALUE + random.nextInt(100000000);
+                    longValues[i] = Long.MIN_VALUE + random.nextInt(100000000);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown size " + size);
+            }
+            if (longValues[i] == 0) {
+                longValues[i] = values[i];
+            }
+        }
+    }
+
+    @Benchmark
+    public String convert() {
+        return converter.convert(values[next++ & (VALUES - 1)]);
+    }
+
+    @Benchmark
+    public int convertIntoBuilder() {
+        words.setLength(0);
+        return converter.convert(values[next++ & (VALUES - 1)], words).length();
+    }
+
+    @Benchmark
+    public int encodeIntoBuffer() {
+        bytes.clear();
+        return converter.encode(values[next++ & (VALUES - 1)], bytes);
+    }
+
+    @Benchmark
+    public int convertLongIntoBuilder() {
+        words.setLength(0);
+        return converter.convert(longValues[next++ & (VALUES - 1)], words).length();
+    }
+
+    @Benchmark
+    public int encodeLongIntoBuffer() {
+        bytes.clear();
+        return converter.encode(longValues[next++ & (VALUES - 1)], bytes);
+    }
+
+    @Benchmark
+    public int length() {
+        return converter.length(values[next++ & (VALUES - 1)]);
+    }
+}
@@ -0,0 +1,98 @@
+package com.takehome.numbers.benchmarks;
+
+import com.takehome.numbers.Numbers;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks complete runs of the application over a large generated input file, streamed through standard input and
+ * memory mapped as an input file. The output is discarded.
+ *
+ * @author jeff.snyder
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    @Param({"1000000"})
+    public int lines;
+
+    private Path input;
+    private PrintStream saveOut;
+    private InputStream saveIn;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        input = Files.createTempFile("numbers-benchmark", ".txt");
+
+        // Mostly valid integers of every size, with some that are invalid
+        Random random = new Random(42);
+        try (BufferedWriter out = Files.newBufferedWriter(input, StandardCharsets.US_ASCII)) {
+            for (int i=0; i<lines; i++) {
+                int kind = random.nextInt(100);
+                if (kind < 5) {
+                    out.write(random.nextInt() + "gd");
+                } else if (kind < 10) {
+                    out.write(random.nextLong() + "0");
+                } else {
+                    out.write(String.valueOf(random.nextInt() >> random.nextInt(32)));
+                }
+                out.newLine();
+            }
+        }
+
+        saveOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        System.setOut(saveOut);
+        Files.delete(input);
+    }
+
+    @Setup(Level.Invocation)
+    public void openInput() throws IOException {
+        saveIn = System.in;
+        System.setIn(new FileInputStream(input.toFile()));
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeInput() throws IOException {
+        System.in.close();
+        System.setIn(saveIn);
+    }
+
+    @Benchmark
+    public void stream() {
+        Numbers.main(new String[]{"--stream"});
+    }
+
+    @Benchmark
+    public void inputFile() {
+        Numbers.main(new String[]{"--input", input.toString()});
+    }
+}
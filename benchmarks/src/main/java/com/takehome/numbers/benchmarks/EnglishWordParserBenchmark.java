@@ -0,0 +1,60 @@
+package com.takehome.numbers.benchmarks;
+
+import com.takehome.numbers.EnglishWordToIntegerParser;
+import com.takehome.numbers.IntegerToEnglishWordConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing English words back into an int, for the output of the converter for small, mid-size and the
+ * largest (Integer.MIN_VALUE sized) values.
+ *
+ * @author jeff.snyder
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnglishWordParserBenchmark {
+
+    // Number of different inputs cycled through, so the JIT can not specialise on a single value
+    private static final int INPUTS = 1024;
+
+    @Param({"small", "mid", "large"})
+    public String size;
+
+    private final EnglishWordToIntegerParser parse = new EnglishWordToIntegerParser();
+    private String[] inputs;
+    private int next;
+
+    @Setup
+    public void setup() {
+        IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+        Random random = new Random(42);
+        inputs = new String[INPUTS];
+        for (int i=0; i<INPUTS; i++) {
+            switch (size) {
+                case "small":
+                    inputs[i] = converter.convert(random.nextInt(100));
+                    break;
+                case "mid":
+                    inputs[i] = converter.convert(1000 + random.nextInt(999000));
+                    break;
+                case "large":
+                    inputs[i] = converter.convert(Integer.MIN_VALUE + random.nextInt(100000000));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown size " + size);
+            }
+        }
+    }
+
+    @Benchmark
+    public int parseIntegerFromWords() {
+        return parse.parseIntegerFromWords(inputs[next++ & (INPUTS - 1)]);
+    }
+}
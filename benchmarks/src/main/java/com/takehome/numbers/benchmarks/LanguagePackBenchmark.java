@@ -0,0 +1,77 @@
+package com.takehome.numbers.benchmarks;
+
+import com.takehome.numbers.EnglishLanguagePack;
+import com.takehome.numbers.FrenchLanguagePack;
+import com.takehome.numbers.IntegerToWordConverter;
+import com.takehome.numbers.LanguagePack;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks converting mid-size and the largest (Integer.MIN_VALUE sized) ints with each language pack, to show that
+ * every pack converts at the same speed once it is compiled into its tables.
+ *
+ * @author jeff.snyder
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LanguagePackBenchmark {
+
+    // Number of different values cycled through, so the JIT can not specialise on a single value
+    private static final int VALUES = 1024;
+
+    @Param({"STANDARD", "BRITISH", "AMERICAN", "FRENCH"})
+    public String language;
+
+    @Param({"mid", "large"})
+    public String size;
+
+    private IntegerToWordConverter converter;
+    private StringBuilder words;
+    private ByteBuffer bytes;
+    private int[] values;
+    private int next;
+
+    @Setup
+    public void setup() {
+        LanguagePack pack = language.equals("FRENCH")
+                ? FrenchLanguagePack.FRENCH : EnglishLanguagePack.valueOf(language);
+        converter = new IntegerToWordConverter(pack);
+        words = new StringBuilder(converter.maxLength());
+        bytes = ByteBuffer.allocateDirect(converter.maxLength());
+
+        Random random = new Random(42);
+        values = new int[VALUES];
+        for (int i=0; i<VALUES; i++) {
+            switch (size) {
+                case "mid":
+                    values[i] = 1000 + random.nextInt(999000);
+                    break;
+                case "large":
+                    values[i] = Integer.MIN_VALUE + random.nextInt(100000000);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown size " + size);
+            }
+        }
+    }
+
+    @Benchmark
+    public int convertIntoBuilder() {
+        words.setLength(0);
+        return converter.convert(values[next++ & (VALUES - 1)], words).length();
+    }
+
+    @Benchmark
+    public int encodeIntoBuffer() {
+        bytes.clear();
+        return converter.encode(values[next++ & (VALUES - 1)], bytes);
+    }
+}
@@ -0,0 +1,112 @@
+package com.takehome.numbers.benchmarks;
+
+import com.takehome.numbers.ParseInteger;
+import com.takehome.numbers.ParseResult;
+import com.takehome.numbers.ParseStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing input into an int, or a long, for each kind of input the application sees. Invalid input is
+ * reported with an exception, so those cases include the cost of creating it, except when parsing into a reusable
+ * result with a status.
+ * <p>
+ * The same inputs are also parsed from a <code>char[]</code>, a digit at a time, and from ASCII bytes, eight digits at
+ * a time, to compare the two.
+ *
+ * @author jeff.snyder
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseIntegerBenchmark {
+
+    // Number of different inputs cycled through, so the JIT can not specialise on a single value
+    private static final int INPUTS = 1024;
+
+    @Param({"valid", "leadingZeros", "overflow", "garbage"})
+    public String kind;
+
+    private final ParseInteger parse = new ParseInteger();
+    private final ParseResult result = new ParseResult();
+    private String[] inputs;
+    private char[][] chars;
+    private byte[][] bytes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        inputs = new String[INPUTS];
+        for (int i=0; i<INPUTS; i++) {
+            int value = random.nextInt();
+            switch (kind) {
+                case "valid":
+                    inputs[i] = String.valueOf(value);
+                    break;
+                case "leadingZeros":
+                    inputs[i] = "0000000" + Math.abs(value % 100000);
+                    break;
+                case "overflow":
+                    inputs[i] = value + "0000000000";
+                    break;
+                case "garbage":
+                    inputs[i] = value + "gd";
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown kind of input " + kind);
+            }
+        }
+
+        chars = new char[INPUTS][];
+        bytes = new byte[INPUTS][];
+        for (int i=0; i<INPUTS; i++) {
+            chars[i] = inputs[i].toCharArray();
+            bytes[i] = inputs[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    @Benchmark
+    public int parseIntegerFromString() {
+        String input = inputs[next++ & (INPUTS - 1)];
+        try {
+            return parse.parseIntegerFromString(input);
+        } catch (NumberFormatException | ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public long parseLongFromString() {
+        String input = inputs[next++ & (INPUTS - 1)];
+        try {
+            return parse.parseLongFromString(input);
+        } catch (NumberFormatException | ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public int tryParseIntegerFromString() {
+        String input = inputs[next++ & (INPUTS - 1)];
+        return parse.tryParseIntegerFromString(input, result) == ParseStatus.OK ? result.getValue() : -1;
+    }
+
+    @Benchmark
+    public int tryParseIntegerFromChars() {
+        char[] input = chars[next++ & (INPUTS - 1)];
+        return parse.tryParseIntegerFromChars(input, 0, input.length, result) == ParseStatus.OK ? result.getValue() : -1;
+    }
+
+    @Benchmark
+    public int tryParseIntegerFromBytes() {
+        byte[] input = bytes[next++ & (INPUTS - 1)];
+        return parse.tryParseIntegerFromBytes(input, 0, input.length, result) == ParseStatus.OK ? result.getValue() : -1;
+    }
+}
@@ -0,0 +1,50 @@
+#!/bin/sh
+# Compares the time from starting the application to its first line of output, and to it exiting, for the plain jar,
+# the jar with the class data sharing archive (mvn -Pcds package) and the GraalVM native executable
+# (mvn -Pnative package). Variants that have not been built are skipped.
+#
+# usage: benchmarks/startup.sh [runs] [integers...]
+#
+# Run from the project directory after "mvn clean package" with any of the profiles.
+
+RUNS=${1:-10}
+[ $# -gt 0 ] && shift
+[ $# -eq 0 ] && set -- 5367 -7754 12a
+JAR=target/numbers-1.0-SNAPSHOT-jar-with-dependencies.jar
+CDS=target/numbers.jsa
+NATIVE=target/numbers
+
+if [ ! -f "$JAR" ]; then
+    echo "Build the project first with: mvn clean package" >&2
+    exit 1
+fi
+
+# Milliseconds from starting a command to its first line of output, then to it exiting
+first_output() {
+    start=$(date +%s%N)
+    first=$("$@" | { read -r line; date +%s%N; cat > /dev/null; })
+    end=$(date +%s%N)
+    echo "$(( (first - start) / 1000000 )) ms first output, $(( (end - start) / 1000000 )) ms exit"
+}
+
+run() {
+    name=$1
+    shift
+    for run in $(seq 1 "$RUNS"); do
+        echo "$name run $run: $(first_output "$@")"
+    done
+}
+
+echo "$(java -version 2>&1 | head -n 1), $RUNS runs converting: $*"
+run "plain " java -jar "$JAR" "$@"
+if [ -f "$CDS" ]; then
+    # CDS warnings go to standard error, so they are not taken for the output
+    run "cds   " java -XX:SharedArchiveFile="$CDS" -Xlog:disable -Xlog:all=warning:stderr -jar "$JAR" "$@"
+else
+    echo "cds: skipped, build the archive with: mvn -Pcds package"
+fi
+if [ -x "$NATIVE" ]; then
+    run "native" "$NATIVE" "$@"
+else
+    echo "native: skipped, build the executable with: mvn -Pnative package"
+fi
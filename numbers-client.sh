@@ -0,0 +1,20 @@
+#!/bin/bash
+# Converts integers with a server started by "./numbers.sh --serve <port>", without starting a JVM for each call. The
+# integers are taken from the command line, or else one per line from standard input. The port is NUMBERS_PORT, or
+# 7370 when it is not set.
+port=${NUMBERS_PORT:-7370}
+exec 3<>/dev/tcp/127.0.0.1/"$port" || exit 1
+
+if [ $# -eq 0 ]; then
+    mapfile -t lines
+    set -- "${lines[@]}"
+fi
+if [ $# -eq 0 ]; then
+    exit 0
+fi
+
+# The server sends back one line for each line sent, and the lines are sent on their own so they can not block the
+# output being read
+printf '%s\n' "$@" >&3 &
+head -n $# <&3
+wait
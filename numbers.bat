@@ -1,2 +1,15 @@
 @echo off
-java -jar target\numbers-1.0-SNAPSHOT-jar-with-dependencies.jar %*
\ No newline at end of file
+setlocal
+rem Start faster with the class data sharing archive from "mvn -Pcds package" when it has been built. The archive and
+rem the logging options need Java 13 or later, an older JVM would not start with them.
+set JAVA_MAJOR=0
+if exist target\numbers.jsa (
+    for /f "tokens=3" %%v in ('java -version 2^>^&1 ^| findstr /i "version"') do (
+        for /f "delims=." %%m in ("%%~v") do set JAVA_MAJOR=%%m
+    )
+)
+if %JAVA_MAJOR% GEQ 13 (
+    java -XX:SharedArchiveFile=target\numbers.jsa -Xlog:disable -Xlog:all=warning:stderr -jar target\numbers-1.0-SNAPSHOT-jar-with-dependencies.jar %*
+) else (
+    java -jar target\numbers-1.0-SNAPSHOT-jar-with-dependencies.jar %*
+)
@@ -1,2 +1,22 @@
 #!/bin/sh
-java -jar target/numbers-1.0-SNAPSHOT-jar-with-dependencies.jar "$@"
\ No newline at end of file
+JAR=target/numbers-1.0-SNAPSHOT-jar-with-dependencies.jar
+CDS=target/numbers.jsa
+
+# Major version of the java on the path, 1 for Java 8 and earlier. It is read from the release file of the JDK when
+# there is one, as starting a JVM just to ask would cost as much as the archive saves.
+java_version() {
+    release="$(dirname "$(dirname "$(readlink -f "$(command -v java)" 2>/dev/null)")")/release"
+    if [ -f "$release" ]; then
+        sed -n 's/^JAVA_VERSION="\([0-9]*\).*/\1/p' "$release"
+    else
+        java -version 2>&1 | sed -n 's/.* version "\([0-9]*\).*/\1/p' | head -n 1
+    fi
+}
+
+# Start faster with the class data sharing archive from "mvn -Pcds package" when it has been built, with any warnings
+# about it going to standard error instead of mixing with the output. The archive and the logging options need Java 13
+# or later, an older JVM would not start with them.
+if [ -f "$CDS" ] && [ "$(java_version)" -ge 13 ] 2>/dev/null; then
+    exec java -XX:SharedArchiveFile="$CDS" -Xlog:disable -Xlog:all=warning:stderr -jar "$JAR" "$@"
+fi
+exec java -jar "$JAR" "$@"
@@ -0,0 +1,225 @@
+package com.takehome.numbers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses everything written to it with gzip on a thread of its own, so compressing the output overlaps with
+ * producing it. Writes are copied into blocks which are handed to the compressing thread, and the blocks are then
+ * handed back to be filled again. There is a fixed number of blocks, so memory use is bounded however much is written:
+ * when the compressing thread falls behind, a write waits for it to finish with a block.
+ * <p>
+ * Flushing hands over what has been written so far and has it compressed and flushed to the output, without waiting.
+ * Closing finishes the compressed data and waits for it all to be written. The output itself is flushed, but not
+ * closed. Only one thread may write to the stream.
+ *
+ * @author jeff.snyder
+ */
+class BackgroundGzipOutputStream extends OutputStream {
+
+    static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+    static final int DEFAULT_BLOCKS = 4;
+
+    /**
+     * Bytes written and not yet compressed, from the start of the array to the length.
+     */
+    private static final class Block {
+        final byte[] bytes;
+        int length;
+
+        Block(int size) {
+            bytes = new byte[size];
+        }
+    }
+
+    // Handed to the compressing thread to have it flush, and to have it finish
+    private static final Block FLUSH = new Block(0);
+    private static final Block FINISH = new Block(0);
+
+    private final BlockingQueue<Block> free;
+    private final BlockingQueue<Block> filled;
+    private final Thread compressor;
+
+    // Set by the compressing thread when it fails, reported by the next write
+    private volatile IOException failure = null;
+
+    private Block current;
+    private boolean closed = false;
+
+    /**
+     * @param out stream the compressed output is written to
+     * @throws IOException problem writing the gzip header
+     */
+    BackgroundGzipOutputStream(OutputStream out) throws IOException {
+        this(out, DEFAULT_BLOCK_SIZE, DEFAULT_BLOCKS);
+    }
+
+    /**
+     * @param out stream the compressed output is written to
+     * @param blockSize number of bytes handed to the compressing thread at a time
+     * @param blocks number of blocks, at least two so one can be filled while another is compressed
+     * @throws IOException problem writing the gzip header
+     */
+    BackgroundGzipOutputStream(OutputStream out, int blockSize, int blocks) throws IOException {
+        if (blocks < 2) {
+            throw new IllegalArgumentException("At least two blocks are needed, not " + blocks + ".");
+        }
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out, blockSize, true);
+        free = new ArrayBlockingQueue<>(blocks);
+        filled = new ArrayBlockingQueue<>(blocks + 2);
+        for (int i=1; i<blocks; i++) {
+            free.add(new Block(blockSize));
+        }
+        current = new Block(blockSize);
+
+        // Never keeps the program running if the stream is not closed
+        compressor = new Thread(() -> compress(gzip, out), "numbers-gzip");
+        compressor.setDaemon(true);
+        compressor.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkOpen();
+        if (current.length == current.bytes.length) {
+            handOver(nextBlock());
+        }
+        current.bytes[current.length++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkOpen();
+        while (len > 0) {
+            if (current.length == current.bytes.length) {
+                handOver(nextBlock());
+            }
+            int count = Math.min(len, current.bytes.length - current.length);
+            System.arraycopy(b, off, current.bytes, current.length, count);
+            current.length += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        if (current.length > 0) {
+            handOver(nextBlock());
+        }
+        put(FLUSH);
+    }
+
+    /**
+     * Compress the rest of the output, finish the compressed data and wait for it to be written.
+     *
+     * @throws IOException problem compressing or writing the output
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        checkOpen();
+        closed = true;
+        if (current.length > 0) {
+            put(current);
+        }
+        put(FINISH);
+
+        try {
+            compressor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing the output.");
+        }
+        checkFailure();
+    }
+
+    /**
+     * Hand the current block to the compressing thread, and make the next block current.
+     */
+    private void handOver(Block next) throws IOException {
+        Block full = current;
+        current = next;
+        put(full);
+    }
+
+    /**
+     * @return an empty block, once the compressing thread has finished with one
+     * @throws IOException when interrupted while waiting
+     */
+    private Block nextBlock() throws IOException {
+        try {
+            Block block = free.take();
+            block.length = 0;
+            return block;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing the output.");
+        }
+    }
+
+    private void put(Block block) throws IOException {
+        try {
+            filled.put(block);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing the output.");
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Problem compressing the output.", failure);
+        }
+    }
+
+    /**
+     * Compress each block handed over until told to finish. After a failure the blocks are still handed back, without
+     * being compressed, so the writer is never left waiting for one.
+     */
+    private void compress(GZIPOutputStream gzip, OutputStream out) {
+        try {
+            Block block;
+            while ((block = filled.take()) != FINISH) {
+                if (failure == null) {
+                    try {
+                        if (block == FLUSH) {
+                            gzip.flush();
+                        } else {
+                            gzip.write(block.bytes, 0, block.length);
+                        }
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                if (block != FLUSH) {
+                    free.add(block);
+                }
+            }
+
+            if (failure == null) {
+                gzip.finish();
+                out.flush();
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("Interrupted while compressing the output.");
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.takehome.numbers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a batch of files, one integer per line, each into an output file of its own, so many files can be converted
+ * by a single run of the application. Each file is converted by one of a fixed pool of worker threads, several files
+ * at a time. The output of a file is always the file with the same name plus {@link #OUTPUT_SUFFIX}, in the output
+ * directory or else next to the file. Files that are gzip compressed are decompressed as they are read.
+ * <p>
+ * Each worker reads its file through a buffer and writes the output through a large direct buffer to a
+ * <code>FileChannel</code>, the buffers being reused for every file the worker converts. Only a limited number of files
+ * are converted ahead of the one being reported, so the time and the outcome of each file are reported in the order
+ * of the files, followed by a summary of the whole batch.
+ * <p>
+ * A line longer than {@link LineConverter#MAX_LINE_LENGTH} is parsed by a {@link LongLineParser} as it is read,
+ * instead of being held, and its record echoes only its first bytes, so the buffers of a worker stay the same size
+ * whatever is in the files.
+ *
+ * @author jeff.snyder
+ */
+class BatchConverter {
+
+    static final String OUTPUT_SUFFIX = ".words";
+
+    // Size of the input and output buffers of each worker
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    // Number of files that can be waiting to be reported per worker thread
+    private static final int FILES_PER_THREAD = 2;
+
+    /**
+     * The buffers of a worker, reused for every file it converts.
+     */
+    private static final class Buffers {
+        final byte[] input;
+        final ByteBuffer output;
+
+        Buffers(int size) {
+            input = new byte[size];
+            output = ByteBuffer.allocateDirect(size);
+        }
+    }
+
+    /**
+     * Outcome of converting a single file.
+     */
+    private static final class Result {
+        final Path input;
+        final Path output;
+        long lines;
+        long nanos;
+        IOException failure;
+
+        Result(Path input, Path output) {
+            this.input = input;
+            this.output = output;
+        }
+    }
+
+    private final int threads;
+    private final int bufferSize;
+    private final ConversionMetrics metrics;
+    private final OutputFormat format;
+    private final ConversionCache cache;
+
+    /**
+     * @param threads number of files converted at a time
+     */
+    BatchConverter(int threads) {
+        this(threads, DEFAULT_BUFFER_SIZE, null, OutputFormat.TEXT, null);
+    }
+
+    /**
+     * @param threads number of files converted at a time
+     * @param bufferSize number of bytes in the input and output buffers of each worker, at least enough for the
+     *                   longest line and its record
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     * @param format format of the records written for each line
+     * @param cache cache shared by the workers for the words of each integer, <code>null</code> for none
+     */
+    BatchConverter(int threads, int bufferSize, ConversionMetrics metrics, OutputFormat format,
+                   ConversionCache cache) {
+        // The input holds the longest line held whole along with a carriage return and one more byte, to tell it is too
+        // long to hold
+        if (bufferSize < Math.max(LineConverter.MAX_LINE_LENGTH + 2, format.maxLength(LineConverter.MAX_LINE_LENGTH))) {
+            throw new IllegalArgumentException("Buffer size " + bufferSize + " is too small for the longest line.");
+        }
+        this.threads = threads;
+        this.bufferSize = bufferSize;
+        this.metrics = metrics;
+        this.format = format;
+        this.cache = cache;
+    }
+
+    /**
+     * Find the files of a batch: every file in a directory, or the files in a directory whose names match a glob (such
+     * as <code>feeds/*.txt</code>). Output files from an earlier batch are left out.
+     *
+     * @param directoryOrGlob directory, or a glob for the names of files in a directory
+     * @return the files, sorted by name
+     * @throws IOException problem reading the directory
+     */
+    static List<Path> findFiles(String directoryOrGlob) throws IOException {
+        Path directory;
+        String glob;
+        if (isDirectory(directoryOrGlob)) {
+            directory = Paths.get(directoryOrGlob);
+            glob = "*";
+        } else {
+            int separator = Math.max(directoryOrGlob.lastIndexOf('/'), directoryOrGlob.lastIndexOf('\\'));
+            directory = Paths.get(separator < 0 ? "." : separator == 0 ? "/" : directoryOrGlob.substring(0, separator));
+            glob = directoryOrGlob.substring(separator + 1);
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, glob)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry) && !entry.getFileName().toString().endsWith(OUTPUT_SUFFIX)) {
+                    files.add(entry);
+                }
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * @param input file to be converted
+     * @param outputDirectory directory the output is written to, <code>null</code> for the directory of the input
+     * @return the file the output for the input is written to
+     */
+    static Path outputFile(Path input, Path outputDirectory) {
+        String name = input.getFileName() + OUTPUT_SUFFIX;
+        return outputDirectory == null ? input.resolveSibling(name) : outputDirectory.resolve(name);
+    }
+
+    /**
+     * Convert every file, reporting the time taken for each in the order of the files and then a summary. A file
+     * that can not be converted is reported and the rest of the batch carries on.
+     *
+     * @param files files to be converted
+     * @param outputDirectory directory the output files are written to (created if it does not exist),
+     *                        <code>null</code> for the directory of each file
+     * @param report stream the outcome of each file and the summary are printed to
+     * @return number of files that could not be converted
+     * @throws IOException problem creating the output directory
+     */
+    int convert(List<Path> files, Path outputDirectory, PrintStream report) throws IOException {
+
+        if (outputDirectory != null) {
+            Files.createDirectories(outputDirectory);
+        }
+
+        BlockingQueue<Buffers> buffers = new ArrayBlockingQueue<>(threads);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long lines = 0;
+        int failures = 0;
+        try {
+            Deque<Future<Result>> pending = new ArrayDeque<>();
+            int next = 0;
+            while (next < files.size() || !pending.isEmpty()) {
+
+                // Keep every worker busy, without converting too far ahead of the file being reported
+                while (next < files.size() && pending.size() < threads * FILES_PER_THREAD) {
+                    Path input = files.get(next++);
+                    Path output = outputFile(input, outputDirectory);
+                    pending.add(workers.submit(() -> convertFile(input, output, buffers)));
+                }
+
+                Result result = waitFor(pending.remove());
+                if (result.failure == null) {
+                    report.printf("%s -> %s: %d lines in %.1f ms%n", result.input, result.output, result.lines,
+                            result.nanos / 1e6);
+                    lines += result.lines;
+                } else {
+                    report.println("Error: Problem converting " + result.input + ": " + result.failure.getMessage());
+                    failures++;
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long nanos = System.nanoTime() - start;
+        report.printf("Batch: %d files (%d failed), %d lines in %.1f ms (%.0f lines/s)%n", files.size(), failures,
+                lines, nanos / 1e6, nanos == 0 ? 0.0 : lines * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+        return failures;
+    }
+
+    private static Result waitFor(Future<Result> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while converting the batch.");
+        } catch (ExecutionException e) {
+            throw new IOException("Problem converting the batch.", e.getCause());
+        }
+    }
+
+    /**
+     * Convert every line of a file into its output file, with buffers that are not in use by another worker.
+     */
+    private Result convertFile(Path input, Path output, BlockingQueue<Buffers> buffers) {
+        Result result = new Result(input, output);
+        long start = System.nanoTime();
+
+        // There are never more files being converted than there are workers, so there are never more buffers either
+        Buffers free = buffers.poll();
+        if (free == null) {
+            free = new Buffers(bufferSize);
+        }
+        try {
+            result.lines = convertFile(input, output, free);
+        } catch (IOException e) {
+            result.failure = e;
+        } finally {
+            buffers.offer(free);
+        }
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Convert every line of the file, the last line not needing a line separator. A carriage return before a line feed
+     * is ignored. A line that is too long to hold is parsed as it is read.
+     *
+     * @return number of lines converted
+     */
+    private long convertFile(Path input, Path output, Buffers buffers) throws IOException {
+
+        LineConverter converter = new LineConverter(metrics, format, cache);
+        LongLineParser longLine = new LongLineParser();
+        ByteBuffer out = buffers.output;
+        out.clear();
+        long lines = 0;
+
+        try (InputStream in = Compression.decompressIfGzip(Files.newInputStream(input));
+             FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            // Bytes read, from the start of the input buffer to the length, the start of the current line first
+            byte[] bytes = buffers.input;
+            int length = 0;
+            int count;
+            while ((count = in.read(bytes, length, bytes.length - length)) >= 0) {
+                int end = length + count;
+                int start = 0;
+                for (int i=length; i<end; i++) {
+                    if (bytes[i] == '\n') {
+                        convertLine(converter, longLine, bytes, start, i, out, channel);
+                        lines++;
+                        start = i + 1;
+                    }
+                }
+
+                if (longLine.inLine() || end - start > LineConverter.MAX_LINE_LENGTH + 1) {
+                    // Too long to hold even without a carriage return at its end, so parse what has been read of it
+                    longLine.append(bytes, start, end);
+                    start = end;
+                }
+
+                // Keep the start of the last line for the next read, which is never more than the longest line
+                length = end - start;
+                System.arraycopy(bytes, start, bytes, 0, length);
+            }
+
+            if (length > 0 || longLine.inLine()) {
+                convertLine(converter, longLine, bytes, 0, length, out, channel);
+                lines++;
+            }
+            write(out, channel);
+        }
+        return lines;
+    }
+
+    private static void convertLine(LineConverter converter, LongLineParser longLine, byte[] bytes, int start, int end,
+                                    ByteBuffer out, FileChannel channel) throws IOException {
+
+        if (!longLine.inLine()) {
+            if (end > start && bytes[end - 1] == '\r') {
+                end--;
+            }
+            if (end - start <= LineConverter.MAX_LINE_LENGTH) {
+                // The buffer always has room for the record of the longest line once it has been written
+                if (out.remaining() < converter.maxRecordLength(end - start)) {
+                    write(out, channel);
+                }
+                converter.writeRecord(bytes, start, end, out);
+                return;
+            }
+        }
+
+        // Too long to echo whole, whether or not it was all read at once
+        longLine.append(bytes, start, end);
+        if (out.remaining() < converter.maxRecordLength(LineConverter.MAX_LINE_LENGTH)) {
+            write(out, channel);
+        }
+        converter.writeLongRecord(longLine, out);
+    }
+
+    /**
+     * Write everything in the buffer, from the start to its position, to the channel and empty the buffer.
+     */
+    private static void write(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static boolean isDirectory(String path) {
+        try {
+            return Files.isDirectory(Paths.get(path));
+        } catch (InvalidPathException e) {
+            // Such as a glob on Windows
+            return false;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.takehome.numbers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+
+import static com.takehome.numbers.IntegerToEnglishWordConverter.AND;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.CHUNK;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.CHUNK_AND;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.NEGATIVE;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.UNDER_TWENTY;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.appendPhrase;
+
+/**
+ * This class is used to convert an integer of any size, either a <code>BigInteger</code> or a string of decimal
+ * digits, into its english language equivalent. The same rules are applied as by
+ * {@link IntegerToEnglishWordConverter}, with a scale word for each group of three digits taken from a table of short
+ * scale words (thousand, million, billion, trillion and so on). The default table goes out to a vigintillion (10^63),
+ * and a different table can be given when the converter is created.
+ * <p>
+ * The digits are read directly, three at a time from the most significant group, and the words for each group are
+ * written to the output as soon as they are known. A <code>BigInteger</code> is never divided by 1000, which would
+ * take time quadratic in the number of digits.
+ *
+ * @author jeff.snyder
+ */
+public class BigIntegerToEnglishWordConverter {
+
+    static final String TOO_LARGE = "Number is too large for the scale words available.";
+
+    /**
+     * The short scale words from a thousand (10^3) to a vigintillion (10^63), each one a thousand times the one before.
+     */
+    public static final String[] SHORT_SCALE = {
+            "thousand", "million", "billion", "trillion", "quadrillion", "quintillion", "sextillion", "septillion",
+            "octillion", "nonillion", "decillion", "undecillion", "duodecillion", "tredecillion", "quattuordecillion",
+            "quindecillion", "sexdecillion", "septendecillion", "octodecillion", "novemdecillion", "vigintillion"
+    };
+
+    private final String[] scale;
+
+    /**
+     * Create a converter using the {@link #SHORT_SCALE} words.
+     */
+    public BigIntegerToEnglishWordConverter() {
+        this(SHORT_SCALE);
+    }
+
+    /**
+     * Create a converter using the given scale words.
+     *
+     * @param scale lower case scale word for each group of three digits above the lowest, starting with the word for
+     *              a thousand
+     */
+    public BigIntegerToEnglishWordConverter(String... scale) {
+        this.scale = scale.clone();
+    }
+
+    /**
+     * @return largest number of decimal digits (ignoring any sign and leading zeros) that can be converted
+     */
+    public int maxDigits() {
+        return (scale.length + 1) * 3;
+    }
+
+    /**
+     * Converts a <code>BigInteger</code> into its English language equivalent.
+     *
+     * @param n number to be converted
+     * @return string containing the English language equivalent of the number
+     * @throws ArithmeticException when the number has more digits than there are scale words for
+     */
+    public String convert(BigInteger n) {
+        return convertDigits(n.toString());
+    }
+
+    /**
+     * Converts a <code>BigInteger</code> into its English language equivalent, writing the words from left to right
+     * to the given output.
+     *
+     * @param n number to be converted
+     * @param out destination of the English language equivalent of the number
+     * @throws IOException problem writing to the output
+     * @throws ArithmeticException when the number has more digits than there are scale words for
+     */
+    public void convert(BigInteger n, Appendable out) throws IOException {
+        String digits = n.toString();
+        convertDigits(digits, 0, digits.length(), out);
+    }
+
+    /**
+     * Converts a string of decimal digits into its English language equivalent.
+     *
+     * @param digits decimal digits of an integer, see {@link #convertDigits(CharSequence, int, int, Appendable)}
+     * @return string containing the English language equivalent of the number
+     * @throws NumberFormatException when there is a non-numeric character in the digits
+     * @throws ArithmeticException when there are more digits than there are scale words for
+     */
+    public String convertDigits(CharSequence digits) {
+        StringBuilder out = new StringBuilder();
+        try {
+            convertDigits(digits, 0, digits.length(), out);
+        } catch (IOException e) {
+            // A StringBuilder never throws an IOException
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Converts a slice of a string of decimal digits into its English language equivalent, writing the words from
+     * left to right to the given output. Leading and trailing white space, an optional minus sign and leading zeros
+     * are allowed, the same as {@link ParseInteger}. The whole slice is checked before anything is written, so nothing
+     * is written when the digits can not be converted.
+     *
+     * @param digits characters containing the decimal digits of an integer
+     * @param start index of the first character of the slice
+     * @param end index after the last character of the slice
+     * @param out destination of the English language equivalent of the number
+     * @throws IOException problem writing to the output
+     * @throws NumberFormatException when there is a non-numeric character in the slice
+     * @throws ArithmeticException when there are more digits than there are scale words for
+     */
+    public void convertDigits(CharSequence digits, int start, int end, Appendable out) throws IOException {
+
+        // Ignore leading or trailing white space
+        while (start < end && digits.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && digits.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        boolean negative = start < end && digits.charAt(start) == '-';
+        if (negative) {
+            start++;
+        }
+        if (start == end) {
+            throw new NumberFormatException(ParseInteger.NON_NUMERIC);
+        }
+
+        // Every character is checked before the number of digits, as a non-numeric character takes precedence
+        for (int i=start; i<end; i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException(ParseInteger.NON_NUMERIC);
+            }
+        }
+
+        while (start < end && digits.charAt(start) == '0') {
+            start++;
+        }
+        if (start == end) {
+            // Special case when the number is zero
+            appendPhrase(out, UNDER_TWENTY[0], true);
+            return;
+        }
+
+        int groups = (end - start + 2) / 3;
+        if (groups - 1 > scale.length) {
+            throw new ArithmeticException(TOO_LARGE);
+        }
+
+        boolean first = true;
+        if (negative) {
+            // Special case for negative numbers
+            first = appendPhrase(out, NEGATIVE, first);
+        }
+
+        // When the last three digits of the number are between 1 and 99, an "and" follows the scale of every higher
+        // group of three digits that is not all zeros.
+        int lowest = group(digits, Math.max(end - 3, start), end);
+        boolean andFlag = lowest != 0 && lowest < 100;
+
+        // The most significant group can have fewer than three digits
+        int groupEnd = start + (end - start) - (groups - 1) * 3;
+        for (int i=groups - 2; i>=0; i--) {
+            int current = group(digits, start, groupEnd);
+            if (current != 0) {
+                first = appendPhrase(out, CHUNK[current], first);
+                first = appendPhrase(out, scale[i], first);
+                if (andFlag) {
+                    first = appendPhrase(out, AND, first);
+                }
+            }
+            start = groupEnd;
+            groupEnd += 3;
+        }
+
+        // Do the lowest three digits, where an "and" goes between the hundreds and the last two digits
+        if (lowest != 0) {
+            appendPhrase(out, CHUNK_AND[lowest], first);
+        }
+    }
+
+    /**
+     * @param digits characters that have already been checked to be decimal digits
+     * @param start index of the first digit of the group
+     * @param end index after the last digit of the group, no more than three digits after the start
+     * @return value of the group, from 0 to 999
+     */
+    private static int group(CharSequence digits, int start, int end) {
+        int value = 0;
+        for (int i=start; i<end; i++) {
+            value = value * 10 + digits.charAt(i) - '0';
+        }
+        return value;
+    }
+}
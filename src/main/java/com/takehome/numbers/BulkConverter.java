@@ -0,0 +1,226 @@
+package com.takehome.numbers;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Converts a batch of integers into their English language equivalents, held together in a {@link WordArena}: a few
+ * large pages of ASCII bytes and one array of offsets, instead of a string for each integer. The exact length of the
+ * words for every integer is calculated first, so the pages are allocated once at their exact size and nothing is
+ * copied. The pages are each at most a gigabyte, so a batch of any number of integers fits, as long as the heap has
+ * room for its words.
+ * <p>
+ * The parallel variant splits the batch into segments converted by the tasks of a <code>ForkJoinPool</code>. The
+ * lengths of each segment are added up first, so every segment then writes its words straight into its own part of
+ * the shared arena.
+ *
+ * @author jeff.snyder
+ */
+public class BulkConverter {
+
+    // Number of bits of an offset into the arena that index into a page, making each page a gigabyte
+    static final int DEFAULT_PAGE_BITS = 30;
+
+    // Number of integers converted by each task of the parallel conversion
+    static final int SEGMENT_SIZE = 1 << 14;
+
+    private final IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+    private final int pageBits;
+
+    public BulkConverter() {
+        this(DEFAULT_PAGE_BITS);
+    }
+
+    /**
+     * @param pageBits number of bits of an offset that index into a page of the arena, from 7 (enough for the
+     *                 longest words) up to 30
+     */
+    BulkConverter(int pageBits) {
+        if (pageBits < 7 || pageBits > DEFAULT_PAGE_BITS) {
+            throw new IllegalArgumentException("Page bits " + pageBits + " must be from 7 to " + DEFAULT_PAGE_BITS
+                    + ".");
+        }
+        this.pageBits = pageBits;
+    }
+
+    /**
+     * Convert every integer in the array.
+     *
+     * @param values numbers to be converted
+     * @return words for the numbers, in the same order
+     */
+    public WordArena convertAll(int[] values) {
+        return convertAll(IntBuffer.wrap(values));
+    }
+
+    /**
+     * Convert every integer remaining in the buffer, from its position to its limit. The position of the buffer is
+     * not changed.
+     *
+     * @param values numbers to be converted
+     * @return words for the numbers, in the same order
+     */
+    public WordArena convertAll(IntBuffer values) {
+
+        int first = values.position();
+        int count = values.remaining();
+        long[] offsets = new long[count + 1];
+
+        long total = 0;
+        for (int i=0; i<count; i++) {
+            offsets[i] = total;
+            total += converter.length(values.get(first + i));
+        }
+        offsets[count] = total;
+
+        byte[][] pages = allocatePages(total);
+        PageWriter out = new PageWriter(pages, 0);
+        for (int i=0; i<count; i++) {
+            out.encode(values.get(first + i), (int) (offsets[i + 1] - offsets[i]));
+        }
+
+        return new WordArena(pages, pageBits, offsets);
+    }
+
+    /**
+     * Convert every integer in the array in parallel, using the common <code>ForkJoinPool</code>.
+     *
+     * @param values numbers to be converted
+     * @return words for the numbers, in the same order
+     */
+    public WordArena convertAllParallel(int[] values) {
+        return convertAllParallel(values, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Convert every integer in the array in parallel, using the given pool.
+     *
+     * @param values numbers to be converted
+     * @param pool pool whose threads convert the segments of the array
+     * @return words for the numbers, in the same order
+     */
+    public WordArena convertAllParallel(int[] values, ForkJoinPool pool) {
+
+        int count = values.length;
+        int segments = (count + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        long[] offsets = new long[count + 1];
+
+        // First find the length of the words of every segment, with offsets from the start of its segment
+        long[] lengths = new long[segments];
+        pool.invoke(new ForEachSegment(0, segments, segment -> {
+            long length = 0;
+            for (int i=segment * SEGMENT_SIZE, end=Math.min(i + SEGMENT_SIZE, count); i<end; i++) {
+                offsets[i] = length;
+                length += converter.length(values[i]);
+            }
+            lengths[segment] = length;
+        }));
+
+        // Then where each segment starts in the arena
+        long[] starts = new long[segments];
+        long total = 0;
+        for (int segment=0; segment<segments; segment++) {
+            starts[segment] = total;
+            total += lengths[segment];
+        }
+        offsets[count] = total;
+
+        // And finally each segment is converted into its own part of the arena
+        byte[][] pages = allocatePages(total);
+        pool.invoke(new ForEachSegment(0, segments, segment -> {
+            PageWriter out = new PageWriter(pages, starts[segment]);
+            int end = Math.min(segment * SEGMENT_SIZE + SEGMENT_SIZE, count);
+            for (int i=segment * SEGMENT_SIZE; i<end; i++) {
+                // The offset of the next integer is still from the start of the segment
+                long next = i + 1 < end ? offsets[i + 1] : lengths[segment];
+                out.encode(values[i], (int) (next - offsets[i]));
+                offsets[i] += starts[segment];
+            }
+        }));
+
+        return new WordArena(pages, pageBits, offsets);
+    }
+
+    /**
+     * @param total number of bytes in the words of the batch
+     * @return full pages for all but the last of the bytes, which are in a page of their own exact size
+     */
+    private byte[][] allocatePages(long total) {
+        long pageSize = 1L << pageBits;
+        byte[][] pages = new byte[(int) ((total + pageSize - 1) >>> pageBits)][];
+        for (int page=0; page<pages.length; page++) {
+            pages[page] = new byte[(int) Math.min(pageSize, total - page * pageSize)];
+        }
+        return pages;
+    }
+
+    /**
+     * Writes the words of integers one after the other into the pages of an arena, from a given offset. Words are
+     * encoded straight into their page, unless they carry on into the next page, in which case they are encoded into a
+     * scratch array first and copied into both pages.
+     */
+    private final class PageWriter {
+
+        private final byte[][] pages;
+        private final byte[] scratch = new byte[IntegerToEnglishWordConverter.MAX_LENGTH];
+        private long offset;
+
+        private PageWriter(byte[][] pages, long offset) {
+            this.pages = pages;
+            this.offset = offset;
+        }
+
+        private void encode(int value, int length) {
+            int mask = (1 << pageBits) - 1;
+            byte[] page = pages[(int) (offset >>> pageBits)];
+            int index = (int) offset & mask;
+            if (page.length - index >= length) {
+                converter.encode(value, page, index);
+            } else {
+                converter.encode(value, scratch, 0);
+                int copied = 0;
+                while (copied < length) {
+                    long to = offset + copied;
+                    page = pages[(int) (to >>> pageBits)];
+                    index = (int) to & mask;
+                    int part = Math.min(length - copied, page.length - index);
+                    System.arraycopy(scratch, copied, page, index, part);
+                    copied += part;
+                }
+            }
+            offset += length;
+        }
+    }
+
+    /**
+     * Runs an action for each segment in a range, splitting the range in half until there is a single segment.
+     */
+    private static final class ForEachSegment extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        private ForEachSegment(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    action.accept(from);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ForEachSegment(from, middle, action), new ForEachSegment(middle, to, action));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.takehome.numbers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Recognizes gzip compressed input by its magic bytes, so compressed feeds can be converted without first being
+ * decompressed to disk. The input is decompressed as it is read, with a buffer of a fixed size whatever the size of
+ * the input.
+ *
+ * @author jeff.snyder
+ */
+final class Compression {
+
+    // First two bytes of every gzip member
+    static final int GZIP_MAGIC_1 = 0x1f;
+    static final int GZIP_MAGIC_2 = 0x8b;
+
+    // Size of the buffer of compressed input
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private Compression() {
+    }
+
+    /**
+     * @param file file to be checked
+     * @return <code>true</code> if the file starts with the gzip magic bytes
+     * @throws IOException problem reading the file
+     */
+    static boolean isGzip(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return in.read() == GZIP_MAGIC_1 && in.read() == GZIP_MAGIC_2;
+        }
+    }
+
+    /**
+     * Decompress the input as it is read when it starts with the gzip magic bytes, otherwise read it as it is. Only
+     * input starting with the first magic byte waits for a second byte before anything is returned, so lines typed on
+     * a terminal are not held back.
+     *
+     * @param in input that may be compressed
+     * @return stream of the decompressed input
+     * @throws IOException problem reading the start of the input, or it is not a valid gzip header
+     */
+    static InputStream decompressIfGzip(InputStream in) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(in, 2);
+        int first = input.read();
+        if (first != GZIP_MAGIC_1) {
+            if (first >= 0) {
+                input.unread(first);
+            }
+            return input;
+        }
+
+        int second = input.read();
+        if (second >= 0) {
+            input.unread(second);
+        }
+        input.unread(first);
+        return second == GZIP_MAGIC_2 ? new GZIPInputStream(input, BUFFER_SIZE) : input;
+    }
+}
@@ -0,0 +1,266 @@
+package com.takehome.numbers;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of the words for integers in front of a converter, for input where a few thousand distinct numbers make up
+ * most of the lines. The words are kept as the bytes the converter encodes, so a hit is a single copy into the output.
+ * <p>
+ * The cache is an open addressing table keyed by the <code>int</code> itself, with no boxing. A number can only be in
+ * the window of {@link #PROBES} slots starting at its hash, so a lookup checks at most that many slots. A number is
+ * added to the first empty slot of its window. When the window is full one of its numbers is evicted with the CLOCK
+ * algorithm: each slot has a bit that is set whenever it is hit, and the window is swept clearing the bits until a
+ * slot is found that has not been hit since it was last passed, which is replaced.
+ * <p>
+ * Each slot holds an immutable entry of the number and its words, so the cache is shared by every thread without
+ * locks: entries are read with a volatile read and added or replaced with a compare and set, which is simply skipped
+ * if another thread changed the slot first. The reference bits are plain writes, so a race between threads can only
+ * make the choice of which number to evict less exact.
+ *
+ * @author jeff.snyder
+ */
+public class ConversionCache implements ConversionCacheMBean {
+
+    static final String OBJECT_NAME = "com.takehome.numbers:type=ConversionCache";
+
+    static final int DEFAULT_CAPACITY = 1 << 16;
+    static final int MAX_CAPACITY = 1 << 24;
+
+    // Number of slots a number may be in, starting at its hash
+    static final int PROBES = 8;
+
+    private static final class Entry {
+        final int key;
+        final byte[] words;
+
+        Entry(int key, byte[] words) {
+            this.key = key;
+            this.words = words;
+        }
+    }
+
+    private final IntegerToWordConverter converter;
+    private final AtomicReferenceArray<Entry> slots;
+    private final byte[] referenced;
+    private final int mask;
+    private final int shift;
+    private final int probes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param converter converter the numbers not in the cache are converted with
+     * @param capacity number of numbers the cache can hold, rounded up to a power of two
+     * @throws IllegalArgumentException when the capacity is not from 1 to {@link #MAX_CAPACITY}
+     */
+    public ConversionCache(IntegerToWordConverter converter, int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Cache capacity " + capacity + " is not from 1 to " + MAX_CAPACITY + ".");
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.converter = converter;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.referenced = new byte[size];
+        this.mask = size - 1;
+        this.shift = 32 - Integer.numberOfTrailingZeros(size);
+        this.probes = Math.min(PROBES, size);
+    }
+
+    /**
+     * Encode the words for an integer into the buffer, from the cache when it is there and otherwise with the
+     * converter, adding them to the cache. See {@link IntegerToWordConverter#encode(int, ByteBuffer)}.
+     *
+     * @param n number to be converted
+     * @param dst buffer the bytes are written to
+     * @return number of bytes written
+     * @throws BufferOverflowException when there is not enough room remaining in the buffer, in which case the
+     * position of the buffer is left unchanged
+     */
+    public int encode(int n, ByteBuffer dst) {
+        byte[] words = lookup(n);
+        if (words != null) {
+            dst.put(words);
+            return words.length;
+        }
+
+        int start = dst.position();
+        int length = converter.encode(n, dst);
+        words = new byte[length];
+        ByteBuffer written = dst.duplicate();
+        written.position(start);
+        written.get(words);
+        add(n, words);
+        return length;
+    }
+
+    /**
+     * Append the words for an integer to the buffer, from the cache when it is there and otherwise with the converter,
+     * adding them to the cache. See {@link IntegerToWordConverter#convert(int, StringBuilder)}.
+     *
+     * @param n number to be converted
+     * @param out buffer the words for the number are appended to
+     * @return the buffer that was passed in
+     */
+    public StringBuilder convert(int n, StringBuilder out) {
+        byte[] words = lookup(n);
+        if (words != null) {
+            return appendUtf8(words, out);
+        }
+
+        int start = out.length();
+        converter.convert(n, out);
+        add(n, out.substring(start).getBytes(StandardCharsets.UTF_8));
+        return out;
+    }
+
+    @Override
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long found = getHits();
+        long lookups = found + getMisses();
+        return lookups == 0 ? 0 : (double) found / lookups;
+    }
+
+    /**
+     * Register the cache with the platform MBean server under {@link #OBJECT_NAME}, replacing any cache already
+     * registered there.
+     *
+     * @throws JMException problem registering the cache
+     */
+    public void register() throws JMException {
+        unregister();
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    /**
+     * Remove the cache from the platform MBean server, if it is registered.
+     *
+     * @throws JMException problem removing the cache
+     */
+    public void unregister() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Print the counters of the cache.
+     *
+     * @param out stream the counters are printed to
+     */
+    public void printSummary(PrintStream out) {
+        out.printf("Cache: capacity %d, %d hits, %d misses, %d evictions (%.1f%% hit rate)%n", getCapacity(),
+                getHits(), getMisses(), getEvictions(), getHitRate() * 100);
+    }
+
+    /**
+     * @param n number to be converted
+     * @return the cached words for the number, <code>null</code> when they are not cached
+     */
+    private byte[] lookup(int n) {
+        int start = slot(n);
+        for (int i=0; i<probes; i++) {
+            int index = (start + i) & mask;
+            Entry entry = slots.get(index);
+            if (entry == null) {
+                // Entries are never removed, only replaced, so the number is not further along the window
+                break;
+            }
+            if (entry.key == n) {
+                referenced[index] = 1;
+                hits.increment();
+                return entry.words;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Add the words for a number to the first empty slot of its window, or in place of the first number in the window
+     * that has not been hit since the clock last passed it.
+     */
+    private void add(int n, byte[] words) {
+        int start = slot(n);
+        Entry added = new Entry(n, words);
+
+        for (int i=0; i<probes; i++) {
+            int index = (start + i) & mask;
+            if (slots.get(index) == null) {
+                if (slots.compareAndSet(index, null, added)) {
+                    referenced[index] = 0;
+                }
+                return;
+            }
+        }
+
+        // Two passes always find a slot, as the first clears every bit it passes
+        for (int i=0; i<probes * 2; i++) {
+            int index = (start + i) & mask;
+            if (referenced[index] != 0) {
+                referenced[index] = 0;
+            } else {
+                Entry evicted = slots.get(index);
+                if (slots.compareAndSet(index, evicted, added)) {
+                    evictions.increment();
+                }
+                return;
+            }
+        }
+    }
+
+    private int slot(int n) {
+        // Fibonacci hashing, so numbers close together are spread over the table
+        return (n * 0x9E3779B9) >>> shift;
+    }
+
+    private static StringBuilder appendUtf8(byte[] words, StringBuilder out) {
+        for (byte b : words) {
+            if (b < 0) {
+                // Words that are not all ASCII are decoded as a whole
+                return out.append(new String(words, StandardCharsets.UTF_8));
+            }
+        }
+        for (byte b : words) {
+            out.append((char) b);
+        }
+        return out;
+    }
+}
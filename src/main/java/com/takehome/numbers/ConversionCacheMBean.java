@@ -0,0 +1,34 @@
+package com.takehome.numbers;
+
+/**
+ * The management interface of {@link ConversionCache}, for watching how well the cache is working over JMX.
+ *
+ * @author jeff.snyder
+ */
+public interface ConversionCacheMBean {
+
+    /**
+     * @return number of numbers the cache can hold
+     */
+    int getCapacity();
+
+    /**
+     * @return number of conversions found in the cache
+     */
+    long getHits();
+
+    /**
+     * @return number of conversions not found in the cache, which were converted and added to it
+     */
+    long getMisses();
+
+    /**
+     * @return number of conversions removed from the cache to make room for others
+     */
+    long getEvictions();
+
+    /**
+     * @return fraction of the lookups that were found in the cache, zero before any lookups
+     */
+    double getHitRate();
+}
@@ -0,0 +1,82 @@
+package com.takehome.numbers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Sends lines to a running {@link ConversionServer} and copies the output back, so the integers are converted by the
+ * server instead of this JVM. The input is sent on its own thread while the output is read, so any amount of input
+ * can be sent without waiting for its output.
+ *
+ * @author jeff.snyder
+ */
+class ConversionClient {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final int port;
+
+    /**
+     * @param port port the server is listening on, on the loopback interface
+     */
+    ConversionClient(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Send every line of the input to the server, writing the output for the lines to the output as it arrives.
+     *
+     * @param input lines of integers to be converted (it is not closed)
+     * @param output stream the output of the server is written to (it is flushed, but not closed)
+     * @throws IOException problem connecting to the server, reading the input or writing the output
+     */
+    void convert(InputStream input, OutputStream output) throws IOException {
+
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port))) {
+
+            IOException[] failure = new IOException[1];
+            Thread sender = new Thread(() -> {
+                try {
+                    byte[] bytes = new byte[BUFFER_SIZE];
+                    int count;
+                    while ((count = input.read(bytes)) >= 0) {
+                        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, count);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    }
+
+                    // Tells the server there are no more lines, so it finishes and closes the connection
+                    channel.shutdownOutput();
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }, "numbers-client-sender");
+            sender.setDaemon(true);
+            sender.start();
+
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                output.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            output.flush();
+
+            try {
+                sender.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while sending to the server.");
+            }
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.takehome.numbers;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the lines converted by the program: how many lines were read, how many were converted and how many
+ * were errors of each kind, along with histograms of how long parsing and converting took. Every thread converting
+ * lines records into the same instance, the counters are striped {@link LongAdder}s so the threads do not contend
+ * with each other.
+ * <p>
+ * Metrics are only recorded by a {@link LineConverter} that was given an instance, when none is given nothing is
+ * timed or counted. They can be watched over JMX while the program runs once {@link #register()} is called, and a
+ * summary printed with {@link #printSummary(PrintStream)}.
+ *
+ * @author jeff.snyder
+ */
+public class ConversionMetrics implements ConversionMetricsMBean {
+
+    static final String OBJECT_NAME = "com.takehome.numbers:type=ConversionMetrics";
+
+    private final LongAdder linesRead = new LongAdder();
+    private final LongAdder conversions = new LongAdder();
+    private final LongAdder nonNumeric = new LongAdder();
+    private final LongAdder overflow = new LongAdder();
+    private final LongAdder empty = new LongAdder();
+    private final LatencyHistogram parseTimes = new LatencyHistogram();
+    private final LatencyHistogram convertTimes = new LatencyHistogram();
+
+    private volatile long startNanos = System.nanoTime();
+
+    /**
+     * Record the parse of a line.
+     *
+     * @param status outcome of the parse
+     * @param nanos time the parse took
+     */
+    void recordParse(ParseStatus status, long nanos) {
+        linesRead.increment();
+        parseTimes.record(nanos);
+        switch (status) {
+            case EMPTY:
+                empty.increment();
+                break;
+            case NON_NUMERIC:
+                nonNumeric.increment();
+                break;
+            case OVERFLOW:
+                overflow.increment();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Record a line that was missing, which is reported the same as an empty line.
+     */
+    void recordMissingLine() {
+        linesRead.increment();
+        empty.increment();
+    }
+
+    /**
+     * Record the conversion of an integer into words.
+     *
+     * @param nanos time the conversion took
+     */
+    void recordConversion(long nanos) {
+        conversions.increment();
+        convertTimes.record(nanos);
+    }
+
+    @Override
+    public long getLinesRead() {
+        return linesRead.sum();
+    }
+
+    @Override
+    public long getConversions() {
+        return conversions.sum();
+    }
+
+    @Override
+    public long getNonNumericErrors() {
+        return nonNumeric.sum();
+    }
+
+    @Override
+    public long getOverflowErrors() {
+        return overflow.sum();
+    }
+
+    @Override
+    public long getEmptyLines() {
+        return empty.sum();
+    }
+
+    @Override
+    public long getParseNanos() {
+        return parseTimes.totalNanos();
+    }
+
+    @Override
+    public long getConvertNanos() {
+        return convertTimes.totalNanos();
+    }
+
+    @Override
+    public long getMeanParseNanos() {
+        return parseTimes.meanNanos();
+    }
+
+    @Override
+    public long getMeanConvertNanos() {
+        return convertTimes.meanNanos();
+    }
+
+    @Override
+    public long getParseNanosP99() {
+        return parseTimes.percentileNanos(99);
+    }
+
+    @Override
+    public long getConvertNanosP99() {
+        return convertTimes.percentileNanos(99);
+    }
+
+    @Override
+    public double getLinesPerSecond() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed <= 0 ? 0 : getLinesRead() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    @Override
+    public void reset() {
+        linesRead.reset();
+        conversions.reset();
+        nonNumeric.reset();
+        overflow.reset();
+        empty.reset();
+        parseTimes.reset();
+        convertTimes.reset();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Register the metrics with the platform MBean server under {@link #OBJECT_NAME}, replacing any metrics already
+     * registered there.
+     *
+     * @throws JMException problem registering the metrics
+     */
+    public void register() throws JMException {
+        unregister();
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    /**
+     * Remove the metrics from the platform MBean server, if they are registered.
+     *
+     * @throws JMException problem removing the metrics
+     */
+    public void unregister() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Print the counters, and the mean and percentiles of the parse and convert times.
+     *
+     * @param out stream the summary is printed to
+     */
+    public void printSummary(PrintStream out) {
+        out.printf("Conversions: %d lines read, %d converted (%.0f lines/s); errors: %d non-numeric, %d overflow, %d empty%n",
+                getLinesRead(), getConversions(), getLinesPerSecond(), getNonNumericErrors(), getOverflowErrors(),
+                getEmptyLines());
+        printTimes(out, "parse:  ", parseTimes);
+        printTimes(out, "convert:", convertTimes);
+    }
+
+    private static void printTimes(PrintStream out, String name, LatencyHistogram times) {
+        out.printf("  %s mean %d ns, p50 <= %d ns, p90 <= %d ns, p99 <= %d ns, max <= %d ns, total %d ms%n", name,
+                times.meanNanos(), times.percentileNanos(50), times.percentileNanos(90), times.percentileNanos(99),
+                times.percentileNanos(100), TimeUnit.NANOSECONDS.toMillis(times.totalNanos()));
+    }
+}
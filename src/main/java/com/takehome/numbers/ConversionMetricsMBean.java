@@ -0,0 +1,74 @@
+package com.takehome.numbers;
+
+/**
+ * The management interface of {@link ConversionMetrics}, for watching the conversions of a running program over JMX.
+ *
+ * @author jeff.snyder
+ */
+public interface ConversionMetricsMBean {
+
+    /**
+     * @return number of lines read, whether or not they held an integer
+     */
+    long getLinesRead();
+
+    /**
+     * @return number of integers converted into words
+     */
+    long getConversions();
+
+    /**
+     * @return number of lines with a character that is not part of an integer
+     */
+    long getNonNumericErrors();
+
+    /**
+     * @return number of lines with an integer too big to fit in a 32-bit integer
+     */
+    long getOverflowErrors();
+
+    /**
+     * @return number of lines that were empty (or only white space), or missing
+     */
+    long getEmptyLines();
+
+    /**
+     * @return total time spent parsing lines in nanoseconds
+     */
+    long getParseNanos();
+
+    /**
+     * @return total time spent converting integers into words in nanoseconds
+     */
+    long getConvertNanos();
+
+    /**
+     * @return mean time to parse a line in nanoseconds
+     */
+    long getMeanParseNanos();
+
+    /**
+     * @return mean time to convert an integer into words in nanoseconds
+     */
+    long getMeanConvertNanos();
+
+    /**
+     * @return time within which 99% of the lines were parsed in nanoseconds, to within a power of two
+     */
+    long getParseNanosP99();
+
+    /**
+     * @return time within which 99% of the integers were converted in nanoseconds, to within a power of two
+     */
+    long getConvertNanosP99();
+
+    /**
+     * @return number of lines read per second since the metrics were created or last reset
+     */
+    double getLinesPerSecond();
+
+    /**
+     * Set every counter back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,527 @@
+package com.takehome.numbers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Converts every line of an input stream using a three stage pipeline, so that reading, converting and writing
+ * overlap:
+ * <p>
+ * 1. A reader thread reads blocks of whole lines from the input into slots.
+ * <p>
+ * 2. Worker threads take the filled slots in turn and convert every line in them into the output buffer of the slot.
+ * <p>
+ * 3. The calling thread writes the output of the converted slots in the order they were read and hands the slots
+ *    back to the reader.
+ * <p>
+ * The slots are preallocated and reused in a fixed size ring, so there is backpressure between the stages: the reader
+ * waits for a free slot when the writer falls behind and the workers and writer wait when there is nothing for them
+ * to do. Each slot carries the sequence number of the block it holds, which tells each stage when a slot is ready for
+ * it. The input is treated as ASCII, lines end with a line feed and a carriage return before it is ignored.
+ * <p>
+ * The input of a slot never grows. A line that grows longer than {@link LineConverter#MAX_LINE_LENGTH} without ending
+ * is parsed by the reader with the {@link LongLineParser} of the slot as it is read, instead of being held, and the
+ * slot passes on its outcome ahead of the lines after it.
+ * <p>
+ * A pipeline converts one input stream and is then done. Counters for each stage are kept as it runs and can be
+ * printed afterwards with {@link #printStats(PrintStream)}.
+ *
+ * @author jeff.snyder
+ */
+class ConversionPipeline {
+
+    // Number of bytes of input in a slot
+    static final int DEFAULT_SLOT_SIZE = 1 << 16;
+
+    // Number of slots in the ring for each worker thread
+    private static final int SLOTS_PER_WORKER = 4;
+
+    // How long a waiting stage spins, then yields, before parking between checks
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * A block of whole lines of input and the output for them, the block starting with a line too long to hold when
+     * the parser of the slot is in a line. Each sequence number is only written by one stage, and a stage only touches
+     * the buffers of a slot once the sequence number it is waiting for has been published.
+     */
+    private static class Slot {
+        final byte[] input;
+        int inputLength;
+        final LongLineParser longLine = new LongLineParser();
+        ByteBuffer output;
+        int lines;
+
+        volatile long filled = -1;
+        volatile long converted = -1;
+        volatile long written = -1;
+
+        Slot(int size) {
+            // Always room for the longest line held, a carriage return and one more byte to tell a line is too long
+            input = new byte[Math.max(size, LineConverter.MAX_LINE_LENGTH + 2)];
+            output = ByteBuffer.allocate(size * 4 + LineConverter.MAX_LENGTH);
+        }
+    }
+
+    private final int workers;
+    private final Slot[] ring;
+    private final ConversionMetrics metrics;
+    private final OutputFormat format;
+    private final ConversionCache cache;
+
+    // Next block for a worker to convert
+    private final AtomicLong nextToConvert = new AtomicLong();
+
+    // Number of blocks read, set by the reader at the end of the input
+    private volatile long end = Long.MAX_VALUE;
+
+    // Next block to be written, so the reader can tell how many slots are in use
+    private volatile long nextToWrite = 0;
+
+    // Set when a stage fails, so the others stop waiting
+    private volatile boolean aborted = false;
+    private volatile Throwable failure = null;
+
+    // Reader counters (only updated by the reader thread)
+    private long readBytes;
+    private long readBlocks;
+    private long readWaits;
+    private long readWaitNanos;
+    private long slotsInUseTotal;
+    private long slotsInUseMax;
+    private long slotsToConvertTotal;
+    private long slotsToConvertMax;
+    private long readNanos;
+
+    // Worker counters (added to by every worker as it finishes)
+    private final AtomicLong convertedLines = new AtomicLong();
+    private final AtomicLong convertWaits = new AtomicLong();
+    private final AtomicLong convertWaitNanos = new AtomicLong();
+    private final AtomicLong convertNanos = new AtomicLong();
+
+    // Writer counters (only updated by the writing thread)
+    private long writtenLines;
+    private long writtenBytes;
+    private long writeWaits;
+    private long writeWaitNanos;
+    private long writeNanos;
+
+    /**
+     * @param workers number of worker threads converting lines
+     */
+    ConversionPipeline(int workers) {
+        this(workers, DEFAULT_SLOT_SIZE);
+    }
+
+    /**
+     * @param workers number of worker threads converting lines
+     * @param slotSize number of bytes of input in each slot
+     */
+    ConversionPipeline(int workers, int slotSize) {
+        this(workers, slotSize, null);
+    }
+
+    /**
+     * @param workers number of worker threads converting lines
+     * @param slotSize number of bytes of input in each slot
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     */
+    ConversionPipeline(int workers, int slotSize, ConversionMetrics metrics) {
+        this(workers, slotSize, metrics, OutputFormat.TEXT);
+    }
+
+    /**
+     * @param workers number of worker threads converting lines
+     * @param slotSize number of bytes of input in each slot
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     * @param format format of the records written for each line
+     */
+    ConversionPipeline(int workers, int slotSize, ConversionMetrics metrics, OutputFormat format) {
+        this(workers, slotSize, metrics, format, null);
+    }
+
+    /**
+     * @param workers number of worker threads converting lines
+     * @param slotSize number of bytes of input in each slot
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     * @param format format of the records written for each line
+     * @param cache cache shared by the workers for the words of each integer, <code>null</code> for none
+     */
+    ConversionPipeline(int workers, int slotSize, ConversionMetrics metrics, OutputFormat format,
+                       ConversionCache cache) {
+        this.workers = workers;
+        this.metrics = metrics;
+        this.format = format;
+        this.cache = cache;
+        this.ring = new Slot[Math.max(SLOTS_PER_WORKER, workers * SLOTS_PER_WORKER)];
+        for (int i=0; i<ring.length; i++) {
+            ring[i] = new Slot(slotSize);
+        }
+    }
+
+    /**
+     * Convert every line of the input until the end of the input is reached, writing the result for each line to the
+     * output in the order of the lines.
+     *
+     * @param input stream of lines to be converted
+     * @param output stream the results are written to (it is flushed, but not closed)
+     * @throws IOException problem reading from the input or writing to the output
+     */
+    void convert(InputStream input, OutputStream output) throws IOException {
+
+        // The reader may be blocked reading the input when the pipeline is aborted, so it must not keep the program
+        // running
+        Thread reader = new Thread(() -> read(input), "numbers-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        Thread[] converters = new Thread[workers];
+        for (int i=0; i<workers; i++) {
+            converters[i] = new Thread(this::work, "numbers-worker-" + i);
+            converters[i].setDaemon(true);
+            converters[i].start();
+        }
+
+        try {
+            write(output);
+            output.flush();
+        } catch (IOException | RuntimeException e) {
+            aborted = true;
+            throw e;
+        }
+
+        // A worker failed, the reader is left behind as it could be blocked reading
+        if (aborted) {
+            throw new IOException("Problem converting the input.", failure);
+        }
+
+        try {
+            reader.join();
+            for (Thread converter : converters) {
+                converter.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while converting.");
+        }
+
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure != null) {
+            throw new IOException("Problem converting the input.", failure);
+        }
+    }
+
+    /**
+     * Reader stage: read whole lines from the input into the next free slot and publish it to the workers. Any
+     * partial line at the end of a read is carried over to the next slot.
+     *
+     * @param input stream of lines to be converted
+     */
+    private void read(InputStream input) {
+
+        long start = System.nanoTime();
+        byte[] carry = new byte[0];
+        int carryLength = 0;
+        long sequence = 0;
+
+        try {
+            while (!aborted) {
+                Slot slot = ring[index(sequence)];
+
+                // Wait for the writer to be done with the block that was in the slot
+                long previous = sequence - ring.length;
+                if (previous >= 0 && slot.written != previous) {
+                    long waitStart = System.nanoTime();
+                    for (int attempt=0; slot.written != previous; attempt++) {
+                        if (aborted) {
+                            return;
+                        }
+                        idle(attempt);
+                    }
+                    readWaits++;
+                    readWaitNanos += System.nanoTime() - waitStart;
+                }
+
+                System.arraycopy(carry, 0, slot.input, 0, carryLength);
+                int length = carryLength;
+
+                // Read until there is at least one whole line in the slot, or a line too long to hold has ended, or
+                // the input ends
+                int lastLine = -1;
+                boolean endOfInput = false;
+                while (lastLine < 0) {
+                    if (length > LineConverter.MAX_LINE_LENGTH + 1) {
+                        // The slot holds nothing but the start of a line too long to hold, so parse it and read on
+                        slot.longLine.append(slot.input, 0, length);
+                        length = 0;
+                    }
+                    int count = input.read(slot.input, length, slot.input.length - length);
+                    if (count < 0) {
+                        endOfInput = true;
+                        if (slot.longLine.inLine()) {
+                            slot.longLine.append(slot.input, 0, length);
+                            length = 0;
+                        }
+                        lastLine = length;
+                        break;
+                    }
+                    readBytes += count;
+                    int from = length;
+                    length += count;
+
+                    if (slot.longLine.inLine()) {
+                        int lineEnd = from;
+                        while (lineEnd < length && slot.input[lineEnd] != '\n') {
+                            lineEnd++;
+                        }
+                        if (lineEnd == length) {
+                            continue;
+                        }
+
+                        // The end of the line too long to hold, which is passed on even without a whole line after it
+                        slot.longLine.append(slot.input, 0, lineEnd);
+                        length -= lineEnd + 1;
+                        System.arraycopy(slot.input, lineEnd + 1, slot.input, 0, length);
+                        from = 0;
+                        lastLine = 0;
+                    }
+                    for (int i=length - 1; i>=from; i--) {
+                        if (slot.input[i] == '\n') {
+                            lastLine = i + 1;
+                            break;
+                        }
+                    }
+                }
+
+                // Anything after the last whole line goes to the next slot
+                carryLength = length - lastLine;
+                if (carry.length < carryLength) {
+                    carry = new byte[carryLength * 2];
+                }
+                System.arraycopy(slot.input, lastLine, carry, 0, carryLength);
+
+                if (lastLine > 0 || slot.longLine.inLine()) {
+                    slot.inputLength = lastLine;
+                    slot.filled = sequence;
+                    sequence++;
+                    readBlocks++;
+                    sample(sequence);
+                }
+
+                if (endOfInput) {
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        } finally {
+            end = sequence;
+            readNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Worker stage: take the next block to be converted, wait for it to be read and convert every line in it.
+     */
+    private void work() {
+
+        long start = System.nanoTime();
+        LineConverter converter = new LineConverter(metrics, format, cache);
+        LongLineParser longLine = new LongLineParser();
+        long lines = 0;
+        long waits = 0;
+        long waitNanos = 0;
+
+        try {
+            while (!aborted) {
+                long sequence = nextToConvert.getAndIncrement();
+                Slot slot = ring[index(sequence)];
+
+                if (slot.filled != sequence) {
+                    long waitStart = System.nanoTime();
+                    for (int attempt=0; slot.filled != sequence; attempt++) {
+                        if (sequence >= end || aborted) {
+                            return;
+                        }
+                        idle(attempt);
+                    }
+                    waits++;
+                    waitNanos += System.nanoTime() - waitStart;
+                }
+
+                // Convert each line of the block, which always ends with a whole line, starting with any line that was
+                // too long to hold
+                ByteBuffer out = slot.output;
+                out.clear();
+                slot.lines = 0;
+                if (slot.longLine.inLine()) {
+                    out = ensureRoom(slot, out, converter.maxRecordLength(LineConverter.MAX_LINE_LENGTH));
+                    converter.writeLongRecord(slot.longLine, out);
+                    slot.lines++;
+                }
+                int lineStart = 0;
+                for (int i=0; i<slot.inputLength; i++) {
+                    if (slot.input[i] == '\n' || i == slot.inputLength - 1) {
+                        int lineEnd = slot.input[i] == '\n' ? i : i + 1;
+                        if (lineEnd > lineStart && slot.input[lineEnd - 1] == '\r') {
+                            lineEnd--;
+                        }
+
+                        if (lineEnd - lineStart <= LineConverter.MAX_LINE_LENGTH) {
+                            out = ensureRoom(slot, out, converter.maxRecordLength(lineEnd - lineStart));
+                            converter.writeRecord(slot.input, lineStart, lineEnd, out);
+                        } else {
+                            // Echoed like a line too long to hold, however it happened to be read
+                            out = ensureRoom(slot, out, converter.maxRecordLength(LineConverter.MAX_LINE_LENGTH));
+                            longLine.append(slot.input, lineStart, lineEnd);
+                            converter.writeLongRecord(longLine, out);
+                        }
+                        slot.lines++;
+                        lineStart = i + 1;
+                    }
+                }
+
+                lines += slot.lines;
+                slot.converted = sequence;
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            aborted = true;
+        } finally {
+            convertedLines.addAndGet(lines);
+            convertWaits.addAndGet(waits);
+            convertWaitNanos.addAndGet(waitNanos);
+            convertNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Writer stage: write the output of every block in the order they were read, handing each slot back to the reader
+     * once it is written.
+     *
+     * @param output stream the results are written to
+     * @throws IOException problem writing to the output
+     */
+    private void write(OutputStream output) throws IOException {
+
+        long start = System.nanoTime();
+        for (long sequence=0; ; sequence++) {
+            Slot slot = ring[index(sequence)];
+
+            if (slot.converted != sequence) {
+                long waitStart = System.nanoTime();
+                for (int attempt=0; slot.converted != sequence; attempt++) {
+                    if (sequence >= end || aborted) {
+                        writeNanos = System.nanoTime() - start;
+                        return;
+                    }
+                    idle(attempt);
+                }
+                writeWaits++;
+                writeWaitNanos += System.nanoTime() - waitStart;
+            }
+
+            ByteBuffer out = slot.output;
+            output.write(out.array(), 0, out.position());
+            writtenBytes += out.position();
+            writtenLines += slot.lines;
+
+            slot.written = sequence;
+            nextToWrite = sequence + 1;
+        }
+    }
+
+    /**
+     * Print the counters of each stage: how much it processed, its throughput, and how often and how long it had to
+     * wait for another stage, along with how full the ring of slots was.
+     *
+     * @param out stream the counters are printed to
+     */
+    void printStats(PrintStream out) {
+        out.printf("Pipeline: 1 reader, %d workers, 1 writer, %d slots%n", workers, ring.length);
+        out.printf("  reader:  %d bytes, %d blocks in %d ms (%s bytes/s), waited for a free slot %d times (%d ms)%n",
+                readBytes, readBlocks, millis(readNanos), perSecond(readBytes, readNanos), readWaits,
+                millis(readWaitNanos));
+
+        // Workers run in parallel, so their time is averaged
+        long workerNanos = convertNanos.get() / Math.max(1, workers);
+        out.printf("  workers: %d lines in %d ms (%s lines/s), waited for input %d times (%d ms)%n",
+                convertedLines.get(), millis(workerNanos), perSecond(convertedLines.get(), workerNanos),
+                convertWaits.get(), millis(convertWaitNanos.get()));
+        out.printf("  writer:  %d lines, %d bytes in %d ms (%s lines/s), waited for output %d times (%d ms)%n",
+                writtenLines, writtenBytes, millis(writeNanos), perSecond(writtenLines, writeNanos), writeWaits,
+                millis(writeWaitNanos));
+        out.printf("  slots in use: average %.1f, maximum %d; waiting for a worker: average %.1f, maximum %d%n",
+                average(slotsInUseTotal, readBlocks), slotsInUseMax,
+                average(slotsToConvertTotal, readBlocks), slotsToConvertMax);
+    }
+
+    /**
+     * Record how many slots are in use and how many are waiting for a worker, each time a block is read.
+     *
+     * @param read number of blocks read so far
+     */
+    private void sample(long read) {
+        long inUse = read - nextToWrite;
+        long toConvert = Math.max(0, read - nextToConvert.get());
+        slotsInUseTotal += inUse;
+        slotsInUseMax = Math.max(slotsInUseMax, inUse);
+        slotsToConvertTotal += toConvert;
+        slotsToConvertMax = Math.max(slotsToConvertMax, toConvert);
+    }
+
+    /**
+     * Make sure there is room in the output of the slot for the longest possible record for a line, growing it if not.
+     */
+    private static ByteBuffer ensureRoom(Slot slot, ByteBuffer out, int room) {
+        if (out.remaining() < room) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + room));
+            out.flip();
+            bigger.put(out);
+            slot.output = bigger;
+            return bigger;
+        }
+        return out;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    /**
+     * Wait a little before checking again: spin at first, then yield, then park.
+     *
+     * @param attempt number of times the stage has already checked
+     */
+    private static void idle(int attempt) {
+        if (attempt < SPIN_TRIES) {
+            return;
+        }
+        if (attempt < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static String perSecond(long count, long nanos) {
+        return nanos == 0 ? "-" : String.valueOf(count * TimeUnit.SECONDS.toNanos(1) / nanos);
+    }
+
+    private static double average(long total, long count) {
+        return count == 0 ? 0 : (double) total / count;
+    }
+}
@@ -0,0 +1,270 @@
+package com.takehome.numbers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * A long running server that converts integers sent to it over TCP connections on the loopback interface, so callers
+ * do not pay for starting a JVM for every conversion. Each connection sends integers one per line and gets back the
+ * output for each line, in order, the same as the output of the application. A client can send as many lines as it
+ * likes without waiting for their results, and when it shuts down its side of the connection the last line is
+ * converted (even without a line separator), the rest of the output is sent and the connection is closed.
+ * <p>
+ * A single thread serves every connection with a selector. All of the complete lines that have arrived on a
+ * connection are converted into one buffer which is then written with a single write. When the client is not reading
+ * its results quickly enough to empty the buffer, no more is read from it until it does. A line that grows longer
+ * than {@link LineConverter#MAX_LINE_LENGTH} without ending is parsed as it arrives by a {@link LongLineParser}
+ * instead of being held, so the buffers of a connection never grow whatever a client sends.
+ *
+ * @author jeff.snyder
+ */
+class ConversionServer implements Closeable {
+
+    static final int DEFAULT_PORT = 7370;
+
+    // Size of the input buffer and of the output buffer of each connection
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ConversionMetrics metrics;
+    private final ConversionCache cache;
+
+    /**
+     * Start listening for connections on the loopback interface.
+     *
+     * @param port port to listen on, zero for any free port
+     * @throws IOException problem listening on the port
+     */
+    ConversionServer(int port) throws IOException {
+        this(port, null, null);
+    }
+
+    /**
+     * Start listening for connections on the loopback interface.
+     *
+     * @param port port to listen on, zero for any free port
+     * @param metrics metrics every line converted for a client is recorded in, <code>null</code> for none
+     * @param cache cache shared by every connection for the words of each integer, <code>null</code> for none
+     * @throws IOException problem listening on the port
+     */
+    ConversionServer(int port, ConversionMetrics metrics, ConversionCache cache) throws IOException {
+        this.metrics = metrics;
+        this.cache = cache;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        try {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return port the server is listening on
+     */
+    int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Serve connections until the server is closed.
+     *
+     * @throws IOException problem accepting connections
+     */
+    void serve() throws IOException {
+        try {
+            while (server.isOpen()) {
+                selector.select();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            connection.process(key);
+                        } catch (IOException e) {
+                            // The client has gone away, which only affects its own connection
+                            key.cancel();
+                            connection.channel.close();
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        }
+    }
+
+    /**
+     * Stop listening for connections, the connections being served are closed.
+     *
+     * @throws IOException problem closing the server
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel, metrics, cache));
+        }
+    }
+
+    /**
+     * The buffers and converter of a single connection.
+     */
+    private static final class Connection {
+
+        private final SocketChannel channel;
+        private final LineConverter converter;
+
+        // Bytes read that are not yet converted, from the start of the buffer to its position
+        private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+
+        // Output not yet written, from the start of the buffer to its position
+        private final ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private boolean endOfInput = false;
+
+        // Parser of a line too long to be held, which is parsed as it arrives
+        private final LongLineParser longLine = new LongLineParser();
+
+        private Connection(SocketChannel channel, ConversionMetrics metrics, ConversionCache cache) {
+            this.channel = channel;
+            this.converter = new LineConverter(metrics, OutputFormat.TEXT, cache);
+        }
+
+        private void read() throws IOException {
+            // Every complete line has been converted before reading, and what is left of a line is never more than
+            // the longest line, so there is always room in the buffer
+            if (channel.read(input) < 0) {
+                endOfInput = true;
+            }
+        }
+
+        /**
+         * Convert the lines that have arrived and write the output, until either all of the complete lines have been
+         * converted and written or the client is not taking any more output. Then wait for the next input or for the
+         * client to take more output, or close the connection when everything has been done.
+         *
+         * @param key registration of the connection with the selector
+         * @throws IOException problem writing to the client
+         */
+        private void process(SelectionKey key) throws IOException {
+            boolean more;
+            do {
+                more = convertLines();
+
+                output.flip();
+                channel.write(output);
+                output.compact();
+                if (output.position() > 0) {
+                    // Stop reading until the client has taken the rest of its output
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+            } while (more);
+
+            if (endOfInput) {
+                key.cancel();
+                channel.close();
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        /**
+         * Convert complete lines of input into the output buffer, while it has room for another line.
+         *
+         * @return <code>true</code> if there are lines left to be converted once there is room in the output
+         */
+        private boolean convertLines() {
+            byte[] bytes = input.array();
+            int end = input.position();
+            int start = 0;
+            boolean full = false;
+
+            for (int i=0; i<end; i++) {
+                if (bytes[i] == '\n') {
+                    if (!hasRoom()) {
+                        full = true;
+                        break;
+                    }
+                    convertLine(bytes, start, i);
+                    start = i + 1;
+                }
+            }
+
+            if (!full) {
+                if (longLine.inLine() || end - start > LineConverter.MAX_LINE_LENGTH + 1) {
+                    // Too long to hold even without a carriage return at its end, so parse what has arrived of it
+                    longLine.append(bytes, start, end);
+                    start = end;
+                }
+                if (endOfInput && (start < end || longLine.inLine()) && hasRoom()) {
+                    // When the client has finished, the last line does not need a line separator
+                    convertLine(bytes, start, end);
+                    start = end;
+                }
+            }
+
+            // Keep the part of the input that has not been converted
+            System.arraycopy(bytes, start, bytes, 0, end - start);
+            input.position(end - start);
+
+            return full || endOfInput && (start < end || longLine.inLine());
+        }
+
+        private boolean hasRoom() {
+            return output.remaining() >= LineConverter.MAX_LENGTH + LINE_SEPARATOR.length;
+        }
+
+        private void convertLine(byte[] bytes, int start, int end) {
+            if (longLine.inLine()) {
+                // The end of a line that was too long to hold
+                longLine.append(bytes, start, end);
+                converter.writeLongRecord(longLine, output);
+                return;
+            }
+            if (end > start && bytes[end - 1] == '\r') {
+                end--;
+            }
+            converter.convertLine(bytes, start, end, output);
+            output.put(LINE_SEPARATOR);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.takehome.numbers;
+
+import static com.takehome.numbers.IntegerToEnglishWordConverter.AND;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.CHUNK;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.CHUNK_AND;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.NEGATIVE;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.SCALE;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.UNDER_TWENTY;
+
+/**
+ * The English words for integers, which only differ in where an "and" goes:
+ * <p>
+ * 1. STANDARD, the rules of {@link IntegerToEnglishWordConverter}: an "and" between the hundreds and the last two
+ *    digits, and after every scale when the last three digits are between 1 and 99.
+ *    For example: 1002005 = "One million and two thousand and five"
+ * <p>
+ * 2. BRITISH: an "and" between the hundreds and the last two digits, or once before the last two digits when there
+ *    are no hundreds.
+ *    For example: 1002005 = "One million two thousand and five"; 1105 = "One thousand one hundred and five"
+ * <p>
+ * 3. AMERICAN: no "and" at all.
+ *    For example: 1002005 = "One million two thousand five"; 1105 = "One thousand one hundred five"
+ *
+ * @author jeff.snyder
+ */
+public enum EnglishLanguagePack implements LanguagePack {
+
+    STANDARD(true, true),
+    BRITISH(true, false),
+    AMERICAN(false, false);
+
+    private final boolean and;
+    private final boolean andAfterEveryScale;
+
+    EnglishLanguagePack(boolean and, boolean andAfterEveryScale) {
+        this.and = and;
+        this.andAfterEveryScale = andAfterEveryScale;
+    }
+
+    @Override
+    public String zero() {
+        return UNDER_TWENTY[0];
+    }
+
+    @Override
+    public String negative() {
+        return NEGATIVE;
+    }
+
+    @Override
+    public String lowestGroup(int n) {
+        return and ? CHUNK_AND[n] : CHUNK[n];
+    }
+
+    @Override
+    public String scaledGroup(int n, int scale) {
+        return CHUNK[n] + " " + SCALE[scale];
+    }
+
+    @Override
+    public String conjunction() {
+        return and ? AND : null;
+    }
+
+    @Override
+    public boolean conjunctionAfterEveryScale() {
+        return andAfterEveryScale;
+    }
+}
@@ -0,0 +1,273 @@
+package com.takehome.numbers;
+
+import static com.takehome.numbers.IntegerToEnglishWordConverter.AND;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.HUNDRED;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.INT_SCALES;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.NEGATIVE;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.SCALE;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.TENS;
+import static com.takehome.numbers.IntegerToEnglishWordConverter.UNDER_TWENTY;
+
+/**
+ * This class is used to turn the English language equivalent of an integer back into the integer, the inverse of
+ * {@link IntegerToEnglishWordConverter}. For example:
+ *   "Negative seven thousand seven hundred and fifty four" = -7754
+ * <p>
+ * The words are matched without regard to case and may be separated by any white space. The "and" is accepted where
+ * the converter puts it: between the hundreds and the last two digits of the lowest group of three digits, or after a
+ * scale word when the last three digits of the number are between 1 and 99. Scale words must get smaller from left to
+ * right, so "One thousand two million" is rejected.
+ * <p>
+ * The input is read once, character by character, walking a trie of the words built when the class is loaded from the
+ * same tables the converter uses. No regular expressions, intermediate strings or arrays are created.
+ *
+ * @author jeff.snyder
+ */
+public class EnglishWordToIntegerParser {
+
+    static final String UNKNOWN_WORD = "Unknown word in input.";
+    static final String BAD_ORDER = "Words are not in a valid order for a number.";
+
+    // Kinds of word, kept in the top bits of the token for the end of each word in the trie
+    private static final int UNIT = 1 << 8;
+    private static final int TEN = 2 << 8;
+    private static final int HUNDREDS = 3 << 8;
+    private static final int THOUSANDS = 4 << 8;
+    private static final int CONJUNCTION = 5 << 8;
+    private static final int MINUS = 6 << 8;
+    private static final int KIND = 0xff << 8;
+    private static final int VALUE = 0xff;
+
+    // Value of each of the scales that fit in an integer
+    private static final long[] SCALE_VALUE = {1000L, 1000000L, 1000000000L};
+
+    private static final int LETTERS = 26;
+
+    // The trie has a row of LETTERS child nodes for each node, zero when there is no child (the root is node zero, so
+    // it is never a child), and the token for the word ending at each node, zero when no word ends there
+    private static final int[] CHILDREN;
+    private static final int[] TOKEN;
+
+    static {
+        int size = 1 + HUNDRED.length() + AND.length() + NEGATIVE.length();
+        for (String word : UNDER_TWENTY) {
+            size += word.length();
+        }
+        for (String word : TENS) {
+            size += word.length();
+        }
+        for (String word : SCALE) {
+            size += word.length();
+        }
+
+        CHILDREN = new int[size * LETTERS];
+        TOKEN = new int[size];
+        int nodes = 1;
+        for (int i=0; i<UNDER_TWENTY.length; i++) {
+            nodes = addWord(UNDER_TWENTY[i], UNIT | i, nodes);
+        }
+        for (int i=2; i<TENS.length; i++) {
+            nodes = addWord(TENS[i], TEN | i * 10, nodes);
+        }
+        for (int i=0; i<SCALE.length; i++) {
+            nodes = addWord(SCALE[i], THOUSANDS | i, nodes);
+        }
+        nodes = addWord(HUNDRED, HUNDREDS, nodes);
+        nodes = addWord(AND, CONJUNCTION, nodes);
+        addWord(NEGATIVE, MINUS, nodes);
+    }
+
+    // Where the parse is in the current group of three digits
+    private static final int GROUP_START = 0;
+    private static final int AFTER_UNIT = 1;
+    private static final int AFTER_HUNDRED = 2;
+    private static final int AFTER_HUNDRED_AND = 3;
+    private static final int AFTER_TENS = 4;
+    private static final int GROUP_DONE = 5;
+    private static final int AFTER_SCALE = 6;
+    private static final int AFTER_SCALE_AND = 7;
+    private static final int AFTER_ZERO = 8;
+
+    /**
+     * This method is used to take the English language equivalent of an integer and return the integer.
+     *
+     * @param words English words for an integer
+     * @return the integer parsed from the words
+     * @throws NumberFormatException when there is a word that is not part of a number or the words are not in a valid
+     * order
+     * @throws ArithmeticException when the number is too big (either positive or negative) to fit in a 32-bit integer
+     */
+    public int parseIntegerFromWords(String words) {
+        return parseIntegerFromWords(words, 0, words.length());
+    }
+
+    /**
+     * Parse the English language equivalent of an integer in a slice of the characters.
+     *
+     * @param words characters containing the English words for an integer
+     * @param start index of the first character of the slice
+     * @param end index after the last character of the slice
+     * @return the integer parsed from the slice
+     * @throws NumberFormatException when there is a word that is not part of a number or the words are not in a valid
+     * order
+     * @throws ArithmeticException when the number is too big (either positive or negative) to fit in a 32-bit integer
+     */
+    public int parseIntegerFromWords(CharSequence words, int start, int end) {
+
+        boolean negative = false;
+        boolean andInGroup = false;
+        boolean andAfterScale = false;
+        boolean overflow = false;
+        int state = GROUP_START;
+        int previousScale = SCALE.length;
+        int group = 0;
+        long total = 0;
+        boolean first = true;
+
+        int i = start;
+        while (true) {
+            // Skip the white space before the next word
+            while (i < end && words.charAt(i) <= ' ') {
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+
+            // Walk the trie to the end of the word
+            int node = 0;
+            while (i < end && words.charAt(i) > ' ') {
+                int letter = (words.charAt(i) | 0x20) - 'a';
+                if (letter < 0 || letter >= LETTERS) {
+                    throw new NumberFormatException(UNKNOWN_WORD);
+                }
+                node = CHILDREN[node * LETTERS + letter];
+                if (node == 0) {
+                    throw new NumberFormatException(UNKNOWN_WORD);
+                }
+                i++;
+            }
+            int token = TOKEN[node];
+            int value = token & VALUE;
+
+            switch (token & KIND) {
+                case UNIT:
+                    if (value == 0) {
+                        // Zero is only ever a number on its own
+                        state = expect(first, AFTER_ZERO);
+                    } else if (state == GROUP_START || state == AFTER_SCALE || state == AFTER_SCALE_AND) {
+                        group = value;
+                        state = value < 10 ? AFTER_UNIT : GROUP_DONE;
+                    } else if (state == AFTER_HUNDRED || state == AFTER_HUNDRED_AND
+                            || (state == AFTER_TENS && value < 10)) {
+                        group += value;
+                        state = GROUP_DONE;
+                    } else {
+                        throw new NumberFormatException(BAD_ORDER);
+                    }
+                    break;
+
+                case TEN:
+                    if (state == GROUP_START || state == AFTER_SCALE || state == AFTER_SCALE_AND) {
+                        group = value;
+                    } else if (state == AFTER_HUNDRED || state == AFTER_HUNDRED_AND) {
+                        group += value;
+                    } else {
+                        throw new NumberFormatException(BAD_ORDER);
+                    }
+                    state = AFTER_TENS;
+                    break;
+
+                case HUNDREDS:
+                    state = expect(state == AFTER_UNIT, AFTER_HUNDRED);
+                    group *= 100;
+                    break;
+
+                case THOUSANDS:
+                    // A scale ends a group that is not empty, and the "and" inside a group is only in the lowest one
+                    if (state != AFTER_UNIT && state != AFTER_HUNDRED && state != AFTER_TENS && state != GROUP_DONE
+                            || andInGroup || value >= previousScale) {
+                        throw new NumberFormatException(BAD_ORDER);
+                    }
+                    if (value >= INT_SCALES) {
+                        overflow = true;
+                    } else {
+                        total += group * SCALE_VALUE[value];
+                    }
+                    previousScale = value;
+                    group = 0;
+                    state = AFTER_SCALE;
+                    break;
+
+                case CONJUNCTION:
+                    if (state == AFTER_HUNDRED) {
+                        andInGroup = true;
+                        state = AFTER_HUNDRED_AND;
+                    } else if (state == AFTER_SCALE) {
+                        andAfterScale = true;
+                        state = AFTER_SCALE_AND;
+                    } else {
+                        throw new NumberFormatException(BAD_ORDER);
+                    }
+                    break;
+
+                case MINUS:
+                    state = expect(first, GROUP_START);
+                    negative = true;
+                    break;
+
+                default:
+                    // The start of a longer word, such as "seve"
+                    throw new NumberFormatException(UNKNOWN_WORD);
+            }
+            first = false;
+        }
+
+        // The words must end with a complete group, a scale or zero, and an "and" after a scale means the last three
+        // digits are between 1 and 99
+        if (state == GROUP_START || state == AFTER_HUNDRED_AND || state == AFTER_SCALE_AND
+                || (andAfterScale && (group == 0 || group > 99))) {
+            throw new NumberFormatException(BAD_ORDER);
+        }
+
+        total += group;
+        if (overflow || total > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+            throw new ArithmeticException(ParseInteger.TOO_LARGE);
+        }
+        return (int) (negative ? -total : total);
+    }
+
+    /**
+     * @param allowed <code>true</code> if the word is allowed in the current state
+     * @param next state after the word
+     * @return the next state
+     * @throws NumberFormatException when the word is not allowed
+     */
+    private static int expect(boolean allowed, int next) {
+        if (!allowed) {
+            throw new NumberFormatException(BAD_ORDER);
+        }
+        return next;
+    }
+
+    /**
+     * Add a word to the trie. This is only used to build the trie when the class is loaded.
+     *
+     * @param word lower case word
+     * @param token kind and value of the word
+     * @param nodes number of nodes in the trie
+     * @return number of nodes in the trie after adding the word
+     */
+    private static int addWord(String word, int token, int nodes) {
+        int node = 0;
+        for (int i=0; i<word.length(); i++) {
+            int child = node * LETTERS + word.charAt(i) - 'a';
+            if (CHILDREN[child] == 0) {
+                CHILDREN[child] = nodes++;
+            }
+            node = CHILDREN[child];
+        }
+        TOKEN[node] = token;
+        return nodes;
+    }
+}
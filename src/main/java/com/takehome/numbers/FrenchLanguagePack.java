@@ -0,0 +1,114 @@
+package com.takehome.numbers;
+
+/**
+ * The French words for integers, in the traditional spelling: hyphens only between tens and units below one hundred,
+ * "et" before "un" and "onze" after the tens up to seventy, and an "s" on "cents" and "quatre-vingts" when they end
+ * the number or come before "millions" and the larger scales, but not before "mille". The scales are the long scale
+ * names used in French, where a "milliard" is 10<sup>9</sup> and a "billion" is 10<sup>12</sup>.
+ * For example:
+ *   -80 = "Moins quatre-vingts"
+ *   71200 = "Soixante et onze mille deux cents"
+ *   200080000 = "Deux cents millions quatre-vingt mille"
+ *
+ * @author jeff.snyder
+ */
+public enum FrenchLanguagePack implements LanguagePack {
+
+    FRENCH;
+
+    private static final String UNITS[] = {
+            "", "un", "deux", "trois", "quatre", "cinq", "six", "sept", "huit", "neuf", "dix",
+            "onze", "douze", "treize", "quatorze", "quinze", "seize"
+    };
+
+    private static final String TENS[] = {"", "dix", "vingt", "trente", "quarante", "cinquante", "soixante"};
+
+    private static final String SCALE[] = {"mille", "million", "milliard", "billion", "billiard", "trillion"};
+
+    @Override
+    public String zero() {
+        return "z\u00e9ro";
+    }
+
+    @Override
+    public String negative() {
+        return "moins";
+    }
+
+    @Override
+    public String lowestGroup(int n) {
+        return group(n, true);
+    }
+
+    @Override
+    public String scaledGroup(int n, int scale) {
+        if (scale == 0) {
+            // "Mille" is never counted with "un" and never takes an "s", nor do the hundreds or eighty before it
+            return n == 1 ? SCALE[0] : group(n, false) + " " + SCALE[0];
+        }
+        return group(n, true) + " " + SCALE[scale] + (n > 1 ? "s" : "");
+    }
+
+    @Override
+    public String conjunction() {
+        return null;
+    }
+
+    @Override
+    public boolean conjunctionAfterEveryScale() {
+        return false;
+    }
+
+    /**
+     * @param n group of three digits from 1 to 999
+     * @param plural <code>true</code> if a whole number of hundreds, or eighty, takes an "s"
+     * @return words for the group
+     */
+    private static String group(int n, boolean plural) {
+        int hundreds = n / 100;
+        int rest = n % 100;
+
+        StringBuilder words = new StringBuilder();
+        if (hundreds == 1) {
+            words.append("cent");
+        } else if (hundreds > 1) {
+            words.append(UNITS[hundreds]).append(" cent");
+            if (rest == 0 && plural) {
+                words.append('s');
+            }
+        }
+        if (rest != 0) {
+            if (words.length() > 0) {
+                words.append(' ');
+            }
+            words.append(underOneHundred(rest, plural));
+        }
+        return words.toString();
+    }
+
+    /**
+     * @param n number from 1 to 99
+     * @param plural <code>true</code> if eighty takes an "s"
+     * @return words for the number
+     */
+    private static String underOneHundred(int n, boolean plural) {
+        if (n < UNITS.length) {
+            return UNITS[n];
+        } else if (n < 20) {
+            return "dix-" + UNITS[n - 10];
+        } else if (n < 70) {
+            int units = n % 10;
+            if (units == 0) {
+                return TENS[n / 10];
+            }
+            return TENS[n / 10] + (units == 1 ? " et un" : "-" + UNITS[units]);
+        } else if (n < 80) {
+            // Sixty followed by ten to nineteen
+            return n == 71 ? "soixante et onze" : "soixante-" + underOneHundred(n - 60, plural);
+        } else if (n == 80) {
+            return plural ? "quatre-vingts" : "quatre-vingt";
+        }
+        // Four twenties followed by one to nineteen
+        return "quatre-vingt-" + underOneHundred(n - 80, plural);
+    }
+}
@@ -1,6 +1,7 @@
 package com.takehome.numbers;
 
-import java.util.Stack;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * This class is used to convert an integer into its english language equivalent. The following rules are applied:
@@ -15,154 +16,145 @@ import java.util.Stack;
  *      140 = "One hundred and forty";
  *      104 = "One hundred and four"; and
  *      1040 = "One thousand and forty"
+ * <p>
+ * Both <code>int</code> and <code>long</code> values can be converted, the scale words going up to "quintillion" for a
+ * <code>long</code>. The conversion itself is done by {@link IntegerToWordConverter} with
+ * {@link EnglishLanguagePack#STANDARD}, this class holds the English words the packs are built from.
  *
  * @author jeff.snyder
  */
-public class IntegerToEnglishWordConverter {
+public class IntegerToEnglishWordConverter extends IntegerToWordConverter {
 
-    private static final String NEGATIVE = "negative";
-    private static final String AND = "and";
-    private static final String HUNDRED = "hundred";
+    static final String NEGATIVE = "negative";
+    static final String AND = "and";
+    static final String HUNDRED = "hundred";
 
-    private static final String UNDER_TWENTY[] = {
+    static final String UNDER_TWENTY[] = {
             "zero", "one", "two", "three", "four", "five", "six", "seven", "eight", "nine", "ten",
             "eleven", "twelve", "thirteen", "fourteen", "fifteen", "sixteen", "seventeen", "eighteen", "nineteen"
     };
 
-    private static final String TENS[] = {
+    static final String TENS[] = {
             "", "", "twenty", "thirty", "forty", "fifty", "sixty", "seventy", "eighty", "ninety"
     };
 
-    // Only need to go out to a billion for an integer
-    private static final String SCALE[] = {"thousand", "million", "billion"};
-
-    /**
-     * Converts an integer into its English language equivalent.
-     *
-     * @param n number to be converted
-     * @return string containing the English language equivalent of the number
-     */
-    public String convert(int n) {
-
-        // This is the word stack that contains the english words of the number.
-        // Going down the stack is like reading the number from left to right
-        Stack<String> words = new Stack<>();
-
-        if (n == 0) {
-            // Special case when the number is zero
-            words.push(UNDER_TWENTY[n]);
-        } else {
-            // Break down the digits of the number into words
-            breakdownNumber(words, n);
-            if (n < 0) {
-                // Special case for negative numbers
-                words.push(NEGATIVE);
-            }
+    // Need to go out to a quintillion for a long, an int only uses the scales up to a billion
+    static final String SCALE[] = {"thousand", "million", "billion", "trillion", "quadrillion", "quintillion"};
+
+    // The finished phrase for every group of three digits from 0 to 999, built once when the class is loaded. The
+    // plain form is used for the higher groups of a number and has no "and" in it. The "and" form has an "and" between
+    // the hundreds and the last two digits and is used for the lowest group. Both forms share the same string when
+    // they are the same. The strings are shared with EnglishLanguagePack and BigIntegerToEnglishWordConverter.
+    static final String CHUNK[] = new String[CHUNK_SIZE];
+    static final String CHUNK_AND[] = new String[CHUNK_SIZE];
+
+    static {
+        // The last two digits are the same in every hundred, so they are built first
+        StringBuilder phrase = new StringBuilder();
+        byte[][] underOneHundred = new byte[100][];
+        for (int i=0; i<100; i++) {
+            phrase.setLength(0);
+            CHUNK[i] = underOneHundredToString(phrase, i).toString();
+            CHUNK_AND[i] = CHUNK[i];
+            underOneHundred[i] = toAscii(CHUNK[i]);
         }
 
-        // Build the string by capitalizing the first word and then appending any additional words with a space
-        // in between them.
-        StringBuilder result = new StringBuilder(words.pop());
-        result.setCharAt(0, Character.toUpperCase(result.charAt(0)));
-        while (!words.empty()) {
-            result.append(" ");
-            result.append(words.pop());
+        // Each hundred is its hundreds prefix followed by the last two digits, with the "and" form only differing
+        // when the last two digits are not both zero. These are put together as bytes, which is much cheaper while
+        // the class is still being interpreted, and the strings are then made from the bytes.
+        for (int hundredths=1; hundredths<10; hundredths++) {
+            String hundreds = UNDER_TWENTY[hundredths] + " " + HUNDRED;
+            byte[] prefix = toAscii(hundreds + " ");
+            byte[] prefixAnd = toAscii(hundreds + " " + AND + " ");
+
+            int base = hundredths * 100;
+            CHUNK[base] = hundreds;
+            CHUNK_AND[base] = hundreds;
+
+            for (int i=1; i<100; i++) {
+                CHUNK[base + i] = new String(concat(prefix, underOneHundred[i]), StandardCharsets.US_ASCII);
+                CHUNK_AND[base + i] = new String(concat(prefixAnd, underOneHundred[i]), StandardCharsets.US_ASCII);
+            }
         }
-
-        return result.toString();
     }
 
     /**
-     * This breaks up the number into 3 digit chunks to be processed (negativity portion of the number is ignored).  It
-     * starts with the lowest 3 digits and works its way to the higher digits.
-     *
-     * @param words english word stack for generating the number (words to be added in reverse order)
-     * @param number integer between <code>MIN_INT</code> and <code>MAX_INT</code>
+     * Maximum number of characters (or bytes when encoded) in the English language equivalent of any integer. The
+     * longest is for numbers such as -1,373,373,373.
      */
-    private void breakdownNumber(Stack<String> words, int number) {
-
-        // Do the lowest three digits and then trim off the 3 digits
-        int current = Math.abs(number % 1000);
-        boolean andFlag = underOneThousandToString(words, current, true);
-        number /= 1000;
-
-        // The remaining portion of the number has a scale for each group of three digits that is added when those
-        // three digits are not all zeros.
-        for (int i=0; i<SCALE.length && number != 0; i++) {
-            current = Math.abs(number % 1000);
-            if (current != 0) {
-                if (andFlag) {
-                    // This is needed as the last two digits or the original number were between 1 and 99 and no other
-                    // non-zero digit had occurred in the number up until this point.
-                    words.push(AND);
-                }
+    public static final int MAX_LENGTH = 125;
 
-                // Add the scale of the current digits and then add the number to the word stack
-                words.push(SCALE[i]);
-                underOneThousandToString(words, current, false);
-            }
+    /**
+     * Maximum number of characters (or bytes when encoded) in the English language equivalent of any long. The longest
+     * is for numbers such as -7,373,373,373,373,373,073.
+     */
+    public static final int MAX_LONG_LENGTH = 250;
 
-            // Trim off another 3 digits
-            number /= 1000;
-        }
+    public IntegerToEnglishWordConverter() {
+        super(EnglishLanguagePack.STANDARD);
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+
+    @Override
+    public int maxLongLength() {
+        return MAX_LONG_LENGTH;
     }
 
     /**
-     * Add English word equivalents to the absolute value of the number in reverse order to the words stack.  If the
-     * "and" flag is set, then an "and" needs to be added if the last two digits are between 1 and 99. If the number is
-     * over 100, the "and" will be added to the words before then hundredth portion of added.
+     * Add English word equivalents of a number under one hundred to the phrase. This is only used to build the table
+     * of phrases when the class is loaded.
      *
-     * @param words english word stack for generating the number (words to be added in reverse order)
-     * @param number an integer in the range of 1 to 999
-     * @param andFlag <code>true</code> if an "and" is needed between then hundreds and tens (or single when no tens) digit
-     * @return <code>true</code> if the number was between 1 and 99 and the andFlag was originally <code>true</code>,
-     * <code>false</code> otherwise. When <code>true</code>, it means that the word "and" would need to be added before
-     * adding additional number words to the word stack.
+     * @param phrase buffer the lower case words of the number are added to, separated by spaces
+     * @param number an integer in the range of 0 to 99 (zero has no words)
+     * @return the phrase that was passed in
      */
-    private boolean underOneThousandToString(Stack<String> words, int number, boolean andFlag) {
+    private static StringBuilder underOneHundredToString(StringBuilder phrase, int number) {
 
-        // Only need to generate words if the number is not zero
+        // Calculate words for the last two digits of the number when they are not both zero
         if (number != 0) {
-            int hundredths = number / 100;
-            number %= 100; // Determine the last two possible digits
-
-            // Calculate words for the last two digits of the number when they are not both zero
-            if (number != 0) {
-                int tens = number / 10;
-
-                // Under 20 are all special numbers
-                if (tens < 2) {
-                    words.push(UNDER_TWENTY[number]);
-                } else {
-                    // When over 20, check to see if the last digit is between 1 and 9, inclusive
-                    int digit = number % 10;
-                    if (digit != 0) {
-                        // Add the last digit
-                        words.push(UNDER_TWENTY[digit]);
-                    }
-                    // Add the tens digit
-                    words.push(TENS[tens]);
-                }
-            } else {
-                // Since this was an even factor of one hundred, no "and" will be needed.
-                andFlag = false;
-            }
+            int tens = number / 10;
 
-            // Calculate words for the hundredth portion of the number
-            if (hundredths > 0) {
-                if (andFlag) {
-                    // "and" will go here as there was a non-zero value in the last two digits
-                    words.push(AND);
-                    andFlag = false;
+            // Under 20 are all special numbers
+            if (tens < 2) {
+                addWord(phrase, UNDER_TWENTY[number]);
+            } else {
+                // Add the tens digit
+                addWord(phrase, TENS[tens]);
+
+                // When over 20, check to see if the last digit is between 1 and 9, inclusive
+                int digit = number % 10;
+                if (digit != 0) {
+                    // Add the last digit
+                    addWord(phrase, UNDER_TWENTY[digit]);
                 }
-                words.push(HUNDRED);
-                words.push(UNDER_TWENTY[hundredths]);
             }
-        } else {
-            andFlag = false;
         }
 
-        // Indicates if an "and" is still needed when there are further portions of the integer to process
-        return andFlag;
+        return phrase;
+    }
+
+    private static void addWord(StringBuilder phrase, String word) {
+        if (phrase.length() > 0) {
+            phrase.append(' ');
+        }
+        phrase.append(word);
+    }
+
+    private static byte[] toAscii(String word) {
+        byte[] encoded = new byte[word.length()];
+        for (int i=0; i<encoded.length; i++) {
+            encoded[i] = (byte) word.charAt(i);
+        }
+        return encoded;
+    }
+
+    private static byte[] concat(byte[] prefix, byte[] suffix) {
+        byte[] joined = Arrays.copyOf(prefix, prefix.length + suffix.length);
+        System.arraycopy(suffix, 0, joined, prefix.length, suffix.length);
+        return joined;
     }
 }
@@ -0,0 +1,585 @@
+package com.takehome.numbers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class is used to convert an integer into words in the language of a {@link LanguagePack}. The number is
+ * written as an optional word for negative numbers followed by each group of three digits that is not all zeros, from
+ * the highest to the lowest, with the conjunction of the language (if it has one) when the lowest group is between 1
+ * and 99.
+ * <p>
+ * The first time a pack is used it is compiled into tables holding the finished phrase for every group of three
+ * digits in every position, as strings and as UTF-8 encoded bytes, which are shared by every converter for the pack.
+ * Converting a number is then the same few table lookups and copies whatever the language, and a converter never
+ * calls its pack. Converters are immutable and may be shared between threads.
+ * <p>
+ * A whole stream of integers can be converted lazily, in sequence or in parallel, with {@link #words(IntStream)}.
+ *
+ * @author jeff.snyder
+ */
+public class IntegerToWordConverter {
+
+    // Number of possible values in a group of three digits
+    static final int CHUNK_SIZE = 1000;
+
+    // Number of scales an int uses, up to a billion
+    static final int INT_SCALES = 3;
+
+    // Difference between a lower case ASCII letter and its upper case equivalent
+    private static final int UPPER_CASE_OFFSET = 'a' - 'A';
+
+    /**
+     * The compiled words of a pack, as strings and as UTF-8 encoded bytes, both indexed by phrase. The phrase for the
+     * lowest group of three digits is at the index of the group, the phrase for a group followed by its scale is at the
+     * index of the scale plus one times {@link #CHUNK_SIZE} plus the group, and zero, negative and the conjunction
+     * have an index of their own.
+     */
+    private static final class Tables {
+
+        private static final Map<LanguagePack, Tables> COMPILED = new ConcurrentHashMap<>();
+
+        static final int ZERO = 0;
+        static final int NEGATIVE = (LanguagePack.SCALES + 1) * CHUNK_SIZE;
+        static final int CONJUNCTION = NEGATIVE + 1;
+
+        final boolean hasConjunction;
+        final boolean conjunctionAfterEveryScale;
+        final String[] phrases = new String[CONJUNCTION + 1];
+        final byte[][] phraseBytes = new byte[CONJUNCTION + 1][];
+
+        // Longest UTF-8 encoding of an int and of a long
+        final int maxLength;
+        final int maxLongLength;
+
+        private Tables(LanguagePack pack) {
+            phrases[ZERO] = pack.zero();
+            phrases[NEGATIVE] = pack.negative();
+            phrases[CONJUNCTION] = pack.conjunction();
+            hasConjunction = phrases[CONJUNCTION] != null;
+            conjunctionAfterEveryScale = hasConjunction && pack.conjunctionAfterEveryScale();
+            for (int n=1; n<CHUNK_SIZE; n++) {
+                phrases[n] = pack.lowestGroup(n);
+                for (int scale=0; scale<LanguagePack.SCALES; scale++) {
+                    phrases[scaled(scale, n)] = pack.scaledGroup(n, scale);
+                }
+            }
+
+            for (int i=0; i<phrases.length; i++) {
+                if (phrases[i] != null) {
+                    phraseBytes[i] = phrases[i].getBytes(StandardCharsets.UTF_8);
+                }
+            }
+            maxLength = maxLength(INT_SCALES);
+            maxLongLength = maxLength(LanguagePack.SCALES);
+        }
+
+        static Tables of(LanguagePack pack) {
+            return COMPILED.computeIfAbsent(pack, Tables::new);
+        }
+
+        /**
+         * @param scale scale of the group, from 0 for thousands
+         * @param n group of three digits from 1 to 999
+         * @return index of the phrase for the group followed by its scale
+         */
+        static int scaled(int scale, int n) {
+            return (scale + 1) * CHUNK_SIZE + n;
+        }
+
+        /**
+         * @param scales number of scales used
+         * @return the longest a number could be, from the longest phrase in each position with a space before each
+         */
+        private int maxLength(int scales) {
+            int conjunctionLength = hasConjunction ? phraseBytes[CONJUNCTION].length + 1 : 0;
+            int length = Math.max(phraseBytes[ZERO].length,
+                    phraseBytes[NEGATIVE].length + 1 + longest(ZERO + 1, CHUNK_SIZE));
+            for (int scale=0; scale<scales; scale++) {
+                length += longest(scaled(scale, 1), scaled(scale, CHUNK_SIZE)) + 1;
+                if (conjunctionAfterEveryScale) {
+                    length += conjunctionLength;
+                }
+            }
+            return conjunctionAfterEveryScale ? length : length + conjunctionLength;
+        }
+
+        private int longest(int start, int end) {
+            int longest = 0;
+            for (int i=start; i<end; i++) {
+                longest = Math.max(longest, phraseBytes[i].length);
+            }
+            return longest;
+        }
+    }
+
+    /**
+     * Where the phrases of a number go as they are walked: characters, encoded bytes or just a count of the bytes.
+     *
+     * @param <T> destination of the phrases
+     * @param <X> exception thrown writing to the destination
+     */
+    @FunctionalInterface
+    private interface PhraseSink<T, X extends Exception> {
+
+        /**
+         * @param words tables of the pack
+         * @param out destination of the phrase
+         * @param offset index the phrase starts at when the destination is an array, otherwise ignored
+         * @param phrase index of the phrase in the tables
+         * @param first <code>true</code> if this is the first phrase of the number
+         * @return number of characters or bytes the phrase takes, including the space before it
+         * @throws X problem writing to the destination
+         */
+        int put(Tables words, T out, int offset, int phrase, boolean first) throws X;
+    }
+
+    private static final PhraseSink<Appendable, IOException> APPEND = (words, out, offset, phrase, first) -> {
+        appendPhrase(out, words.phrases[phrase], first);
+        return words.phrases[phrase].length() + (first ? 0 : 1);
+    };
+
+    private static final PhraseSink<ByteBuffer, RuntimeException> PUT = (words, out, offset, phrase, first) -> {
+        putPhrase(out, words.phraseBytes[phrase], first);
+        return words.phraseBytes[phrase].length + (first ? 0 : 1);
+    };
+
+    private static final PhraseSink<byte[], RuntimeException> PUT_ARRAY = (words, out, offset, phrase, first) -> {
+        byte[] bytes = words.phraseBytes[phrase];
+        int length = bytes.length + (first ? 0 : 1);
+        if (offset + length > out.length) {
+            throw new BufferOverflowException();
+        }
+        if (first) {
+            out[offset] = capitalize(bytes[0]);
+            System.arraycopy(bytes, 1, out, offset + 1, bytes.length - 1);
+        } else {
+            out[offset] = ' ';
+            System.arraycopy(bytes, 0, out, offset + 1, bytes.length);
+        }
+        return length;
+    };
+
+    private static final PhraseSink<Void, RuntimeException> COUNT =
+            (words, out, offset, phrase, first) -> words.phraseBytes[phrase].length + (first ? 0 : 1);
+
+    // Bits each higher group of three digits is packed into while walking a number
+    private static final int GROUP_BITS = 10;
+
+    private final Tables tables;
+
+    /**
+     * @param pack words of the language numbers are converted into
+     */
+    public IntegerToWordConverter(LanguagePack pack) {
+        this.tables = Tables.of(pack);
+    }
+
+    /**
+     * @return maximum number of bytes in the UTF-8 encoded words for any integer
+     */
+    public int maxLength() {
+        return tables.maxLength;
+    }
+
+    /**
+     * @return maximum number of bytes in the UTF-8 encoded words for any long
+     */
+    public int maxLongLength() {
+        return tables.maxLongLength;
+    }
+
+    /**
+     * Converts an integer into words.
+     *
+     * @param n number to be converted
+     * @return string containing the words for the number
+     */
+    public String convert(int n) {
+        return convert(n, new StringBuilder(maxLength())).toString();
+    }
+
+    /**
+     * Converts an integer into words, appending them to the end of the given buffer. No intermediate collections or
+     * strings are created.
+     *
+     * @param n number to be converted
+     * @param out buffer the words for the number are appended to
+     * @return the buffer that was passed in
+     */
+    public StringBuilder convert(int n, StringBuilder out) {
+        try {
+            convert(n, (Appendable) out);
+        } catch (IOException e) {
+            // A StringBuilder never throws an IOException
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /**
+     * Converts an integer into words, writing them from left to right to the given output. No intermediate collections
+     * or strings are created.
+     *
+     * @param n number to be converted
+     * @param out destination of the words for the number
+     * @throws IOException problem writing to the output
+     */
+    public void convert(int n, Appendable out) throws IOException {
+        walk(n, INT_SCALES, out, 0, APPEND);
+    }
+
+    /**
+     * Encodes the words for an integer as UTF-8 bytes (ASCII for English) into the array, starting at the offset.
+     *
+     * @param n number to be converted
+     * @param dst array the bytes are written to
+     * @param offset index in the array of the first byte written
+     * @return number of bytes written
+     * @throws BufferOverflowException when there is not enough room in the array after the offset, in which case the
+     * bytes after the offset may have been changed
+     * @throws IndexOutOfBoundsException when the offset is negative or past the end of the array
+     */
+    public int encode(int n, byte[] dst, int offset) {
+        if (offset < 0 || offset > dst.length) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " is outside an array of " + dst.length + ".");
+        }
+        return walk(n, INT_SCALES, dst, offset, PUT_ARRAY);
+    }
+
+    /**
+     * Encodes the words for an integer as UTF-8 bytes (ASCII for English) into the buffer (heap or direct), starting
+     * at its current position. The position is advanced past the bytes written, so the buffer can be flipped and
+     * written to a channel without any character to byte transcoding.
+     *
+     * @param n number to be converted
+     * @param dst buffer the bytes are written to
+     * @return number of bytes written
+     * @throws BufferOverflowException when there is not enough room remaining in the buffer, in which case the
+     * position of the buffer is left unchanged
+     */
+    public int encode(int n, ByteBuffer dst) {
+        return encode(n, INT_SCALES, dst);
+    }
+
+    /**
+     * Converts a long into words.
+     *
+     * @param n number to be converted
+     * @return string containing the words for the number
+     */
+    public String convert(long n) {
+        return convert(n, new StringBuilder(maxLongLength())).toString();
+    }
+
+    /**
+     * Converts a long into words, appending them to the end of the given buffer. No intermediate collections or
+     * strings are created.
+     *
+     * @param n number to be converted
+     * @param out buffer the words for the number are appended to
+     * @return the buffer that was passed in
+     */
+    public StringBuilder convert(long n, StringBuilder out) {
+        try {
+            convert(n, (Appendable) out);
+        } catch (IOException e) {
+            // A StringBuilder never throws an IOException
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /**
+     * Converts a long into words, writing them from left to right to the given output.
+     *
+     * @param n number to be converted
+     * @param out destination of the words for the number
+     * @throws IOException problem writing to the output
+     */
+    public void convert(long n, Appendable out) throws IOException {
+        walk(n, LanguagePack.SCALES, out, 0, APPEND);
+    }
+
+    /**
+     * Encodes the words for a long as UTF-8 bytes (ASCII for English) into the buffer (heap or direct), starting at
+     * its current position. See {@link #encode(int, ByteBuffer)}.
+     *
+     * @param n number to be converted
+     * @param dst buffer the bytes are written to
+     * @return number of bytes written
+     * @throws BufferOverflowException when there is not enough room remaining in the buffer, in which case the
+     * position of the buffer is left unchanged
+     */
+    public int encode(long n, ByteBuffer dst) {
+        return encode(n, LanguagePack.SCALES, dst);
+    }
+
+    /**
+     * Calculates the exact number of bytes in the UTF-8 encoded words for an integer (the number of characters too,
+     * for English), without converting it, so output can be sized exactly before it is written.
+     *
+     * @param n number to be converted
+     * @return length of the words for the number
+     */
+    public int length(int n) {
+        return walk(n, INT_SCALES, null, 0, COUNT);
+    }
+
+    /**
+     * Calculates the exact number of bytes in the UTF-8 encoded words for a long, without converting it. See
+     * {@link #length(int)}.
+     *
+     * @param n number to be converted
+     * @return length of the words for the number
+     */
+    public int length(long n) {
+        return walk(n, LanguagePack.SCALES, null, 0, COUNT);
+    }
+
+    /**
+     * Calculates the total number of bytes in the UTF-8 encoded words for a batch of integers, not counting anything
+     * written between them.
+     *
+     * @param values numbers to be converted
+     * @return sum of the lengths of the words for the numbers
+     */
+    public long length(int[] values) {
+        long total = 0;
+        for (int value : values) {
+            total += length(value);
+        }
+        return total;
+    }
+
+    /**
+     * Lazily converts a stream of integers into a stream of their words, in the same order. Nothing is converted until
+     * the returned stream is consumed, and it is parallel when the integers are.
+     * <p>
+     * The words stream splits wherever the stream of integers splits, so a parallel stream of a range or an array is
+     * split evenly between threads, and it is sized and ordered whenever the integers are so the words can be
+     * collected in parallel straight into their places. Each split appends the words into its own reused buffer.
+     *
+     * @param numbers numbers to be converted (closed when the words stream is closed)
+     * @return stream of the words for each number
+     */
+    public Stream<String> words(IntStream numbers) {
+        return StreamSupport.stream(new WordSpliterator(this, numbers.spliterator()), numbers.isParallel())
+                .onClose(numbers::close);
+    }
+
+    /**
+     * Write the encoded words for a number apart from its lowest three digits: the negative word if it is negative and
+     * then each higher group of three digits that is not all zeros with its scale, along with any conjunction that
+     * goes before a lowest group between 1 and 99. Used with {@link #putLowestGroup} to build the words for many
+     * numbers that share their higher groups.
+     *
+     * @param n number being converted
+     * @param small <code>true</code> if the lowest three digits are between 1 and 99
+     * @param dst buffer the bytes are written to
+     * @return number of bytes written, zero when nothing was written so the next phrase is the first of the number
+     */
+    int putHighGroups(long n, boolean small, ByteBuffer dst) {
+        return walkHighGroups(n, LanguagePack.SCALES, small, dst, 0, PUT);
+    }
+
+    /**
+     * Write the encoded words for the lowest three digits of a number. Nothing is written when they are all zeros.
+     *
+     * @param lowest lowest three digits of the number, from 0 to 999
+     * @param first <code>true</code> if this is the first phrase of the number
+     * @param dst buffer the bytes are written to
+     */
+    void putLowestGroup(int lowest, boolean first, ByteBuffer dst) {
+        if (lowest != 0) {
+            PUT.put(tables, dst, 0, lowest, first);
+        }
+    }
+
+    private int encode(long n, int scales, ByteBuffer dst) {
+        int start = dst.position();
+        try {
+            return walk(n, scales, dst, 0, PUT);
+        } catch (BufferOverflowException e) {
+            dst.position(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Walk the phrases of a number from left to right, the one place the rules for writing a number are kept.
+     *
+     * @param n number to be converted
+     * @param scales number of scales the number can use
+     * @param out destination of the phrases
+     * @param offset index the words start at when the destination is an array
+     * @param sink writes each phrase to the destination
+     * @return total number of characters or bytes of the phrases
+     * @throws X problem writing to the destination
+     */
+    private <T, X extends Exception> int walk(long n, int scales, T out, int offset, PhraseSink<T, X> sink)
+            throws X {
+        if (n == 0) {
+            // Special case when the number is zero
+            return sink.put(tables, out, offset, Tables.ZERO, true);
+        }
+
+        // The remainder is taken before the absolute value, so the lowest negative number needs no special case
+        int lowest = (int) Math.abs(n % CHUNK_SIZE);
+        int length = walkHighGroups(n, scales, lowest != 0 && lowest < 100, out, offset, sink);
+        if (lowest != 0) {
+            length += sink.put(tables, out, offset + length, lowest, length == 0);
+        }
+        return length;
+    }
+
+    private <T, X extends Exception> int walkHighGroups(long n, int scales, boolean small, T out, int offset,
+                                                        PhraseSink<T, X> sink) throws X {
+        Tables words = tables;
+        int length = 0;
+        if (n < 0) {
+            // Special case for negative numbers
+            length += sink.put(words, out, offset, Tables.NEGATIVE, true);
+        }
+
+        // When the lowest group is between 1 and 99 the conjunction, if there is one, goes either after every higher
+        // group or once before the lowest
+        boolean andAfterScale = small && words.conjunctionAfterEveryScale;
+        boolean higher = false;
+
+        // The higher groups of three digits are packed from the lowest scale up, so the number is only ever divided
+        // by a constant, which is much cheaper than dividing by a power of a thousand for each group (negativity
+        // portion of the number is ignored)
+        long groups = 0;
+        long rest = n / CHUNK_SIZE;
+        for (int i=0; rest != 0; i++) {
+            groups |= Math.abs(rest % CHUNK_SIZE) << (GROUP_BITS * i);
+            rest /= CHUNK_SIZE;
+        }
+
+        // Each is then written with its scale when it is not all zeros
+        for (int i=scales - 1; i>=0; i--) {
+            int current = (int) (groups >>> (GROUP_BITS * i)) & (1 << GROUP_BITS) - 1;
+            if (current != 0) {
+                length += sink.put(words, out, offset + length, Tables.scaled(i, current), length == 0);
+                if (andAfterScale) {
+                    length += sink.put(words, out, offset + length, Tables.CONJUNCTION, false);
+                }
+                higher = true;
+            }
+        }
+
+        if (small && higher && !andAfterScale && words.hasConjunction) {
+            length += sink.put(words, out, offset + length, Tables.CONJUNCTION, false);
+        }
+        return length;
+    }
+
+    /**
+     * Write a phrase of one or more words to the output. The first word of the number is capitalized, every other
+     * phrase is preceded by a space.
+     *
+     * @param out destination of the phrase
+     * @param phrase words to be written
+     * @param first <code>true</code> if this is the first phrase of the number
+     * @return always <code>false</code>, as a phrase has now been written
+     * @throws IOException problem writing to the output
+     */
+    static boolean appendPhrase(Appendable out, String phrase, boolean first) throws IOException {
+        if (first) {
+            out.append(Character.toUpperCase(phrase.charAt(0)));
+            out.append(phrase, 1, phrase.length());
+        } else {
+            out.append(' ');
+            out.append(phrase);
+        }
+        return false;
+    }
+
+    /**
+     * Write an encoded phrase of one or more words to the buffer. The first word of the number is capitalized (when it
+     * starts with a lower case ASCII letter), every other phrase is preceded by a space.
+     *
+     * @param out buffer the phrase is written to
+     * @param phrase encoded words to be written
+     * @param first <code>true</code> if this is the first phrase of the number
+     * @return always <code>false</code>, as a phrase has now been written
+     */
+    static boolean putPhrase(ByteBuffer out, byte[] phrase, boolean first) {
+        if (first) {
+            out.put(capitalize(phrase[0]));
+            out.put(phrase, 1, phrase.length - 1);
+        } else {
+            out.put((byte) ' ');
+            out.put(phrase);
+        }
+        return false;
+    }
+
+    private static byte capitalize(byte letter) {
+        return letter >= 'a' && letter <= 'z' ? (byte) (letter - UPPER_CASE_OFFSET) : letter;
+    }
+
+    /**
+     * Converts each integer from a spliterator of integers into words as it is taken. The spliterator is only used by
+     * one thread at a time, so its buffer is reused for every integer it converts and each split gets a new one.
+     */
+    private static final class WordSpliterator implements Spliterator<String>, IntConsumer {
+
+        private final IntegerToWordConverter converter;
+        private final Spliterator.OfInt numbers;
+        private final StringBuilder words;
+        private Consumer<? super String> action;
+
+        WordSpliterator(IntegerToWordConverter converter, Spliterator.OfInt numbers) {
+            this.converter = converter;
+            this.numbers = numbers;
+            this.words = new StringBuilder(converter.maxLength());
+        }
+
+        @Override
+        public void accept(int n) {
+            words.setLength(0);
+            action.accept(converter.convert(n, words).toString());
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            this.action = action;
+            return numbers.tryAdvance((IntConsumer) this);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super String> action) {
+            this.action = action;
+            numbers.forEachRemaining((IntConsumer) this);
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            Spliterator.OfInt prefix = numbers.trySplit();
+            return prefix == null ? null : new WordSpliterator(converter, prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return numbers.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return numbers.characteristics() & (ORDERED | SIZED | SUBSIZED) | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.takehome.numbers;
+
+/**
+ * The words of a language for writing integers, used by {@link IntegerToWordConverter}. A number is written as its
+ * groups of three digits from the highest to the lowest, each group that is not all zeros followed by the word for its
+ * scale (thousand, million and so on), so a pack only has to give the words for a single group of three digits in each
+ * position. A pack is asked for every group once, when it is first used, and the words are kept in tables from then
+ * on, so its methods are never called while converting.
+ * <p>
+ * Words are given in lower case, except for any the language always capitalizes, and phrases of several words are
+ * separated by single spaces. The converter capitalizes the first letter of each number.
+ *
+ * @author jeff.snyder
+ */
+public interface LanguagePack {
+
+    /**
+     * Number of scales a pack has words for, enough for any <code>long</code> (up to 10<sup>18</sup>).
+     */
+    int SCALES = 6;
+
+    /**
+     * @return words for zero
+     */
+    String zero();
+
+    /**
+     * @return word that starts a negative number
+     */
+    String negative();
+
+    /**
+     * @param n group of three digits from 1 to 999
+     * @return words for the group when it is the lowest group of the number
+     */
+    String lowestGroup(int n);
+
+    /**
+     * @param n group of three digits from 1 to 999
+     * @param scale scale of the group, from 0 for thousands up to {@link #SCALES} - 1
+     * @return words for the group followed by the word for its scale
+     */
+    String scaledGroup(int n, int scale);
+
+    /**
+     * @return word that joins the higher groups to a lowest group between 1 and 99, <code>null</code> for none
+     */
+    String conjunction();
+
+    /**
+     * @return <code>true</code> if the conjunction follows every higher group, <code>false</code> if it only comes once
+     * before the lowest group
+     */
+    boolean conjunctionAfterEveryScale();
+}
@@ -0,0 +1,110 @@
+package com.takehome.numbers;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations with a fixed bucket for each power of two nanoseconds, so recording a duration is a single
+ * striped counter increment with no allocation or locking, however many threads record at once. Percentiles are only
+ * known to within their bucket, so they are reported as the upper bound of the bucket they fall in.
+ *
+ * @author jeff.snyder
+ */
+class LatencyHistogram {
+
+    // Bucket i counts the durations from 2^(i-1) up to 2^i nanoseconds, bucket 0 counts durations of zero
+    static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i=0; i<BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param nanos duration to be recorded
+     */
+    void record(long nanos) {
+        int bucket = 64 - Long.numberOfLeadingZeros(Math.max(0, nanos));
+        buckets[Math.min(bucket, BUCKETS - 1)].increment();
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * @return number of durations recorded
+     */
+    long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return sum of the durations recorded in nanoseconds
+     */
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return mean duration in nanoseconds, zero when nothing has been recorded
+     */
+    long meanNanos() {
+        long recorded = count();
+        return recorded == 0 ? 0 : totalNanos() / recorded;
+    }
+
+    /**
+     * @param percentile percentile from 0 to 100
+     * @return upper bound in nanoseconds of the bucket the percentile falls in, zero when nothing has been recorded
+     */
+    long percentileNanos(double percentile) {
+        long[] counts = counts();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i=0; i<BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * @return number of durations in each bucket
+     */
+    long[] counts() {
+        long[] counts = new long[BUCKETS];
+        for (int i=0; i<BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * @param bucket index of a bucket
+     * @return largest duration in nanoseconds counted by the bucket
+     */
+    static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        totalNanos.reset();
+    }
+}
@@ -0,0 +1,267 @@
+package com.takehome.numbers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts a single line of input into the line of output the program displays for it: either the English language
+ * equivalent of the integer on the line or an error message indicating why it could not be translated. The output is
+ * appended to a buffer supplied by the caller, so the same buffer can be reused for every line. Invalid lines are
+ * reported from the status of the parse, without any exception being thrown.
+ * <p>
+ * When given {@link ConversionMetrics}, every line is counted and its parse and conversion are timed. Without them
+ * the lines are converted exactly as before, the only extra work being a check that there are no metrics.
+ * <p>
+ * When given a {@link ConversionCache}, the words for each integer are taken from the cache, which can be shared by
+ * the converters of every thread.
+ * <p>
+ * The byte output can also be written as whole records in one of the {@link OutputFormat}s, with
+ * {@link #writeRecord(byte[], int, int, ByteBuffer)}.
+ * <p>
+ * Instances are not thread safe, each thread converting lines needs its own.
+ *
+ * @author jeff.snyder
+ */
+class LineConverter {
+
+    static final String ERROR_PREFIX = "Error: ";
+    static final String NO_NUMBER = "No number for the given line.";
+
+    /**
+     * Maximum number of characters (or bytes when encoded) output for any line, the English language equivalent of an
+     * integer being longer than any error message.
+     */
+    static final int MAX_LENGTH = IntegerToEnglishWordConverter.MAX_LENGTH;
+
+    /**
+     * Longest line of input held whole by the converters that read lines into buffers of their own, far longer than
+     * any integer needs. A longer line is parsed by a {@link LongLineParser} as it is read, so a single line can not
+     * make a buffer grow without bound.
+     */
+    static final int MAX_LINE_LENGTH = MAX_LENGTH;
+
+    private static final byte[] ERROR_PREFIX_BYTES = ERROR_PREFIX.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NON_NUMERIC_BYTES = ParseInteger.NON_NUMERIC.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TOO_LARGE_BYTES = ParseInteger.TOO_LARGE.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final ParseInteger parse = new ParseInteger();
+    private final ParseResult result = new ParseResult();
+    private final IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+    private final ConversionMetrics metrics;
+    private final OutputFormat format;
+    private final ConversionCache cache;
+
+    // Words for the line being written as a record in a format other than text
+    private final ByteBuffer words = ByteBuffer.allocate(MAX_LENGTH);
+
+    LineConverter() {
+        this(null);
+    }
+
+    /**
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     */
+    LineConverter(ConversionMetrics metrics) {
+        this(metrics, OutputFormat.TEXT);
+    }
+
+    /**
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     * @param format format of the records written for each line
+     */
+    LineConverter(ConversionMetrics metrics, OutputFormat format) {
+        this(metrics, format, null);
+    }
+
+    /**
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     * @param format format of the records written for each line
+     * @param cache cache the words for each integer are taken from, <code>null</code> for none
+     */
+    LineConverter(ConversionMetrics metrics, OutputFormat format, ConversionCache cache) {
+        this.metrics = metrics;
+        this.format = format;
+        this.cache = cache;
+    }
+
+    /**
+     * Append the output for a line to the buffer (without a line separator).
+     *
+     * @param line line of input, may be <code>null</code> when there was no line
+     * @param out buffer the output is appended to
+     * @return the buffer that was passed in
+     */
+    StringBuilder convertLine(String line, StringBuilder out) {
+        if (line == null) {
+            if (metrics != null) {
+                metrics.recordMissingLine();
+            }
+            return out.append(ERROR_PREFIX).append(NO_NUMBER);
+        }
+        return convertLine(line, 0, line.length(), out);
+    }
+
+    /**
+     * Append the output for a line held in a slice of the characters to the buffer (without a line separator).
+     *
+     * @param line characters containing the line of input
+     * @param start index of the first character of the line
+     * @param end index after the last character of the line
+     * @param out buffer the output is appended to
+     * @return the buffer that was passed in
+     */
+    StringBuilder convertLine(CharSequence line, int start, int end, StringBuilder out) {
+        if (metrics != null) {
+            return convertLineMeasured(line, start, end, out);
+        }
+        ParseStatus status = parse.tryParseIntegerFromChars(line, start, end, result);
+        if (status == ParseStatus.OK) {
+            return convert(result.getValue(), out);
+        }
+        return out.append(ERROR_PREFIX).append(status.getMessage());
+    }
+
+    /**
+     * Write the output for a line held in a slice of ASCII encoded bytes to the buffer as ASCII bytes (without a line
+     * separator).
+     *
+     * @param line ASCII encoded characters containing the line of input
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line
+     * @param out buffer the output is written to, which needs at least {@link #MAX_LENGTH} bytes remaining
+     * @return outcome of parsing the line
+     */
+    ParseStatus convertLine(byte[] line, int start, int end, ByteBuffer out) {
+        if (metrics != null) {
+            return convertLineMeasured(line, start, end, out);
+        }
+        ParseStatus status = parse.tryParseIntegerFromBytes(line, start, end, result);
+        if (status == ParseStatus.OK) {
+            encode(result.getValue(), out);
+        } else {
+            putError(status, out);
+        }
+        return status;
+    }
+
+    /**
+     * Write the whole record for a line held in a slice of ASCII encoded bytes to the buffer, in the format of this
+     * converter. For text this is the output of {@link #convertLine(byte[], int, int, ByteBuffer)} followed by a line
+     * separator.
+     *
+     * @param line ASCII encoded characters containing the line of input
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line
+     * @param out buffer the record is written to, which needs at least {@link #maxRecordLength(int)} bytes remaining
+     */
+    void writeRecord(byte[] line, int start, int end, ByteBuffer out) {
+        if (format == OutputFormat.TEXT) {
+            convertLine(line, start, end, out);
+            out.put(LINE_SEPARATOR);
+            return;
+        }
+
+        words.clear();
+        ParseStatus status = convertLine(line, start, end, words);
+        format.write(line, start, end, end - start, status, result.getValue(), words, out);
+    }
+
+    /**
+     * Write the record for a line that was too long to be held whole, once all of it has been appended to the parser,
+     * in the format of this converter. Only the first bytes of the line are echoed, marked as such. The parser is
+     * finished, ready for the next line.
+     *
+     * @param line parser the whole line has been appended to
+     * @param out buffer the record is written to, which needs at least {@link #maxRecordLength(int)} of
+     *            {@link #MAX_LINE_LENGTH} bytes remaining
+     */
+    void writeLongRecord(LongLineParser line, ByteBuffer out) {
+        words.clear();
+        ParseStatus status;
+        if (metrics == null) {
+            status = line.finish(result);
+            if (status == ParseStatus.OK) {
+                encode(result.getValue(), words);
+            }
+        } else {
+            // Only the end of the line is timed, the rest having been parsed as it was read
+            long parseStart = System.nanoTime();
+            status = line.finish(result);
+            long convertStart = System.nanoTime();
+            metrics.recordParse(status, convertStart - parseStart);
+            if (status == ParseStatus.OK) {
+                encode(result.getValue(), words);
+                metrics.recordConversion(System.nanoTime() - convertStart);
+            }
+        }
+        if (status != ParseStatus.OK) {
+            putError(status, words);
+        }
+        format.write(line.head(), 0, line.headLength(), line.length(), status, result.getValue(), words, out);
+    }
+
+    /**
+     * Write the record for a line that was missing from the input to the buffer, in the format of this converter.
+     *
+     * @param out buffer the record is written to, which needs at least {@link #maxRecordLength(int)} of zero bytes
+     *            remaining
+     */
+    void writeMissingRecord(ByteBuffer out) {
+        if (metrics != null) {
+            metrics.recordMissingLine();
+        }
+        format.writeMissing(out);
+    }
+
+    /**
+     * @param lineLength number of bytes in a line of input
+     * @return maximum number of bytes in the record written for the line
+     */
+    int maxRecordLength(int lineLength) {
+        return format.maxLength(lineLength);
+    }
+
+    private StringBuilder convertLineMeasured(CharSequence line, int start, int end, StringBuilder out) {
+        long parseStart = System.nanoTime();
+        ParseStatus status = parse.tryParseIntegerFromChars(line, start, end, result);
+        long convertStart = System.nanoTime();
+        metrics.recordParse(status, convertStart - parseStart);
+        if (status == ParseStatus.OK) {
+            convert(result.getValue(), out);
+            metrics.recordConversion(System.nanoTime() - convertStart);
+            return out;
+        }
+        return out.append(ERROR_PREFIX).append(status.getMessage());
+    }
+
+    private ParseStatus convertLineMeasured(byte[] line, int start, int end, ByteBuffer out) {
+        long parseStart = System.nanoTime();
+        ParseStatus status = parse.tryParseIntegerFromBytes(line, start, end, result);
+        long convertStart = System.nanoTime();
+        metrics.recordParse(status, convertStart - parseStart);
+        if (status == ParseStatus.OK) {
+            encode(result.getValue(), out);
+            metrics.recordConversion(System.nanoTime() - convertStart);
+        } else {
+            putError(status, out);
+        }
+        return status;
+    }
+
+    private StringBuilder convert(int n, StringBuilder out) {
+        return cache == null ? converter.convert(n, out) : cache.convert(n, out);
+    }
+
+    private void encode(int n, ByteBuffer out) {
+        if (cache == null) {
+            converter.encode(n, out);
+        } else {
+            cache.encode(n, out);
+        }
+    }
+
+    private static void putError(ParseStatus status, ByteBuffer out) {
+        out.put(ERROR_PREFIX_BYTES).put(status == ParseStatus.OVERFLOW ? TOO_LARGE_BYTES : NON_NUMERIC_BYTES);
+    }
+}
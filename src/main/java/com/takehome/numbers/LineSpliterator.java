@@ -0,0 +1,62 @@
+package com.takehome.numbers;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Converts each line from a spliterator of lines into the line of output the program displays for it, as it is
+ * taken. See {@link Numbers#convertLines(java.util.stream.Stream)}.
+ * <p>
+ * Splits wherever the lines split, and is sized and ordered whenever they are. A spliterator is only used by one
+ * thread at a time, so each one has its own {@link LineConverter} and buffer, reused for every line it converts.
+ *
+ * @author jeff.snyder
+ */
+class LineSpliterator implements Spliterator<String>, Consumer<String> {
+
+    private final Spliterator<String> lines;
+    private final LineConverter converter = new LineConverter();
+    private final StringBuilder output = new StringBuilder(LineConverter.MAX_LENGTH);
+    private Consumer<? super String> action;
+
+    /**
+     * @param lines lines of input, which may be <code>null</code> when there was no line
+     */
+    LineSpliterator(Spliterator<String> lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public void accept(String line) {
+        output.setLength(0);
+        action.accept(converter.convertLine(line, output).toString());
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        this.action = action;
+        return lines.tryAdvance(this);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        this.action = action;
+        lines.forEachRemaining(this);
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        Spliterator<String> prefix = lines.trySplit();
+        return prefix == null ? null : new LineSpliterator(prefix);
+    }
+
+    @Override
+    public long estimateSize() {
+        return lines.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return lines.characteristics() & (ORDERED | SIZED | SUBSIZED) | NONNULL;
+    }
+}
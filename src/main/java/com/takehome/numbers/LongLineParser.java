@@ -0,0 +1,180 @@
+package com.takehome.numbers;
+
+/**
+ * Parses a line of input too long to be held whole, a piece at a time as it is read, with exactly the outcome that
+ * {@link ParseInteger} has for the whole line. It is a small state machine of a fixed size: leading whitespace and
+ * zeros are dropped as they stream past, only the significant digits of the integer are kept (more than ten of them
+ * always being too large), and the rest of the line is still scanned for a character that makes it non-numeric, which
+ * outranks it being too large.
+ * <p>
+ * Only the first {@link LineConverter#MAX_LINE_LENGTH} bytes of the line are kept, for the record of the line to
+ * echo, along with the number of bytes in the whole line.
+ * <p>
+ * A line is started by the first call to {@link #append(byte[], int, int)} and ended by
+ * {@link #finish(ParseResult)}, after which the parser is ready for the next line. Instances are not thread safe.
+ *
+ * @author jeff.snyder
+ */
+final class LongLineParser {
+
+    private enum State {
+        // Before anything but whitespace
+        LEADING,
+        // After a minus sign
+        SIGN,
+        // Among the digits
+        DIGITS,
+        // In whitespace after the digits, so there must be nothing else
+        TRAILING,
+        // After a character that makes the line non-numeric, so nothing else matters
+        NON_NUMERIC
+    }
+
+    // More significant digits than an int can hold
+    private static final int MAX_DIGITS = 10;
+
+    private final byte[] head = new byte[LineConverter.MAX_LINE_LENGTH];
+    private int headLength;
+    private long length;
+    private boolean inLine = false;
+    private boolean carriageReturn;
+
+    private State state;
+    private boolean negative;
+    private int digits;
+    private long magnitude;
+
+    /**
+     * @return <code>true</code> when part of a line has been appended and the line has not yet been finished
+     */
+    boolean inLine() {
+        return inLine;
+    }
+
+    /**
+     * Parse the next piece of the line, starting a new line when none is in progress.
+     *
+     * @param bytes ASCII encoded characters containing the piece of the line
+     * @param start index of the first byte of the piece
+     * @param end index after the last byte of the piece
+     */
+    void append(byte[] bytes, int start, int end) {
+        if (!inLine) {
+            inLine = true;
+            headLength = 0;
+            length = 0;
+            carriageReturn = false;
+            state = State.LEADING;
+            negative = false;
+            digits = 0;
+            magnitude = 0;
+        }
+        if (start == end) {
+            return;
+        }
+
+        int kept = Math.min(end - start, head.length - headLength);
+        System.arraycopy(bytes, start, head, headLength, kept);
+        headLength += kept;
+        length += end - start;
+        carriageReturn = bytes[end - 1] == '\r';
+
+        for (int i=start; i<end && state != State.NON_NUMERIC; i++) {
+            accept(bytes[i]);
+        }
+    }
+
+    /**
+     * Finish the line, a carriage return at its end being ignored.
+     *
+     * @param result set to the outcome of parsing the whole line
+     * @return outcome of parsing the whole line
+     */
+    ParseStatus finish(ParseResult result) {
+        inLine = false;
+        if (carriageReturn) {
+            length--;
+            headLength = (int) Math.min(headLength, length);
+        }
+
+        switch (state) {
+            case LEADING:
+                return result.set(ParseStatus.EMPTY.ordinal(), 0);
+            case DIGITS:
+            case TRAILING:
+                if (digits > MAX_DIGITS || magnitude > (negative ? 1L << 31 : Integer.MAX_VALUE)) {
+                    return result.set(ParseStatus.OVERFLOW.ordinal(), 0);
+                }
+                return result.set(ParseStatus.OK.ordinal(), (int) (negative ? -magnitude : magnitude));
+            default:
+                return result.set(ParseStatus.NON_NUMERIC.ordinal(), 0);
+        }
+    }
+
+    /**
+     * @return the first bytes of the line (the array itself, not a copy)
+     */
+    byte[] head() {
+        return head;
+    }
+
+    /**
+     * @return number of bytes of the line kept in the head
+     */
+    int headLength() {
+        return headLength;
+    }
+
+    /**
+     * @return number of bytes in the whole line
+     */
+    long length() {
+        return length;
+    }
+
+    private void accept(byte b) {
+        boolean whitespace = (b & 0xff) <= ' ';
+        boolean digit = b >= '0' && b <= '9';
+        switch (state) {
+            case LEADING:
+                if (b == '-') {
+                    negative = true;
+                    state = State.SIGN;
+                } else if (digit) {
+                    state = State.DIGITS;
+                    addDigit(b);
+                } else if (!whitespace) {
+                    state = State.NON_NUMERIC;
+                }
+                break;
+            case SIGN:
+            case DIGITS:
+                if (digit) {
+                    state = State.DIGITS;
+                    addDigit(b);
+                } else {
+                    // Whitespace straight after the sign leaves it on its own, which is not a number either
+                    state = whitespace && state == State.DIGITS ? State.TRAILING : State.NON_NUMERIC;
+                }
+                break;
+            case TRAILING:
+                if (!whitespace) {
+                    state = State.NON_NUMERIC;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void addDigit(byte b) {
+        // Leading zeros are dropped and once there are too many digits the rest only need to be checked
+        if (digits > MAX_DIGITS || digits == 0 && b == '0') {
+            return;
+        }
+        digits++;
+        if (digits <= MAX_DIGITS) {
+            magnitude = magnitude * 10 + (b - '0');
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.takehome.numbers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Converts every line of a file, one integer per line, using a pool of worker threads. The file is memory mapped and
+ * split into chunks that end on a line boundary. Each chunk is parsed and converted by a worker into its own buffer of
+ * ASCII output, and the buffers are written out in the order of the chunks, so the output is in the same order as the
+ * lines of the file.
+ * <p>
+ * Only a limited number of chunks are converted ahead of the one being written, so memory use stays bounded however
+ * big the file is. A line longer than {@link LineConverter#MAX_LINE_LENGTH} is parsed by a {@link LongLineParser}
+ * rather than copied whole, and a line too long for a single mapping (2GB) can not be converted at all.
+ *
+ * @author jeff.snyder
+ */
+class MappedFileConverter {
+
+    // Nominal size of the piece of the file converted by each worker task
+    static final int DEFAULT_CHUNK_SIZE = 1 << 18;
+
+    // Number of chunks that can be waiting to be written per worker thread
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    private final int threads;
+    private final int chunkSize;
+    private final ConversionMetrics metrics;
+    private final OutputFormat format;
+    private final ConversionCache cache;
+
+    /**
+     * @param threads number of worker threads converting chunks of the file
+     */
+    MappedFileConverter(int threads) {
+        this(threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param threads number of worker threads converting chunks of the file
+     * @param chunkSize nominal number of bytes of the file in each chunk (a chunk is extended to the end of its last
+     *                  line)
+     */
+    MappedFileConverter(int threads, int chunkSize) {
+        this(threads, chunkSize, null);
+    }
+
+    /**
+     * @param threads number of worker threads converting chunks of the file
+     * @param chunkSize nominal number of bytes of the file in each chunk (a chunk is extended to the end of its last
+     *                  line)
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     */
+    MappedFileConverter(int threads, int chunkSize, ConversionMetrics metrics) {
+        this(threads, chunkSize, metrics, OutputFormat.TEXT);
+    }
+
+    /**
+     * @param threads number of worker threads converting chunks of the file
+     * @param chunkSize nominal number of bytes of the file in each chunk (a chunk is extended to the end of its last
+     *                  line)
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     * @param format format of the records written for each line
+     */
+    MappedFileConverter(int threads, int chunkSize, ConversionMetrics metrics, OutputFormat format) {
+        this(threads, chunkSize, metrics, format, null);
+    }
+
+    /**
+     * @param threads number of worker threads converting chunks of the file
+     * @param chunkSize nominal number of bytes of the file in each chunk (a chunk is extended to the end of its last
+     *                  line)
+     * @param metrics metrics every line is recorded in, <code>null</code> for none
+     * @param format format of the records written for each line
+     * @param cache cache shared by the workers for the words of each integer, <code>null</code> for none
+     */
+    MappedFileConverter(int threads, int chunkSize, ConversionMetrics metrics, OutputFormat format,
+                        ConversionCache cache) {
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.metrics = metrics;
+        this.format = format;
+        this.cache = cache;
+    }
+
+    /**
+     * Convert every line of the file, writing the result for each line to the output in the order of the lines.
+     *
+     * @param file file of lines to be converted
+     * @param output stream the results are written to (it is flushed, but not closed)
+     * @throws IOException problem reading the file or writing to the output
+     */
+    void convert(Path file, OutputStream output) throws IOException {
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                ByteBuffer chunk = mapChunk(channel, position, size);
+                position += chunk.limit();
+                pending.add(workers.submit(() -> convertChunk(chunk)));
+
+                // Wait for the oldest chunk to be written before mapping any more of the file
+                if (pending.size() >= threads * CHUNKS_PER_THREAD) {
+                    write(pending.remove(), output);
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                write(pending.remove(), output);
+            }
+            output.flush();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Map the next chunk of the file. The chunk ends just after the last line separator in it, unless it is the end of
+     * the file. If there is no line separator at all, the chunk is made bigger until there is one, up to the largest
+     * mapping there can be.
+     *
+     * @param channel file being converted
+     * @param position offset in the file of the start of the chunk
+     * @param size size of the file
+     * @return buffer of the bytes of the chunk, with its limit at the end of the last line in it
+     * @throws IOException problem mapping the file, or a line too long to be mapped
+     */
+    private ByteBuffer mapChunk(FileChannel channel, long position, long size) throws IOException {
+
+        long length = chunkSize;
+        while (true) {
+            length = Math.min(length, size - position);
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            if (position + length == size) {
+                return chunk;
+            }
+
+            for (int i=(int) length - 1; i>=0; i--) {
+                if (chunk.get(i) == '\n') {
+                    chunk.limit(i + 1);
+                    return chunk;
+                }
+            }
+
+            // A single line longer than the chunk, so try again with a bigger one (a mapping is limited to 2GB)
+            if (length == Integer.MAX_VALUE) {
+                throw new IOException("Line at offset " + position + " is longer than can be mapped.");
+            }
+            length = Math.min(length * 2, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Convert every line in the chunk, the last line not needing a line separator. A carriage return before a line
+     * feed is ignored.
+     *
+     * @param chunk bytes of the chunk of the file, from its position to its limit
+     * @return buffer of the ASCII output for the chunk, ready to be read
+     */
+    private ByteBuffer convertChunk(ByteBuffer chunk) {
+
+        LineConverter converter = new LineConverter(metrics, format, cache);
+        LongLineParser longLine = new LongLineParser();
+        ByteBuffer out = ByteBuffer.allocate(chunk.remaining() * 4 + LineConverter.MAX_LENGTH);
+
+        // Room for the longest line held along with a carriage return
+        byte[] line = new byte[LineConverter.MAX_LINE_LENGTH + 1];
+
+        int length = 0;
+        int end = chunk.limit();
+        for (int i=chunk.position(); i<end; i++) {
+            byte b = chunk.get(i);
+            if (b == '\n') {
+                out = convertLine(converter, longLine, line, length, out);
+                length = 0;
+            } else {
+                if (length == line.length) {
+                    // Too long to hold, so parse what there is of it and carry on
+                    longLine.append(line, 0, length);
+                    length = 0;
+                }
+                line[length++] = b;
+            }
+        }
+
+        // The last line of the file may not have a line separator
+        if (length > 0 || longLine.inLine()) {
+            out = convertLine(converter, longLine, line, length, out);
+        }
+
+        out.flip();
+        return out;
+    }
+
+    private static ByteBuffer convertLine(LineConverter converter, LongLineParser longLine, byte[] line, int length,
+                                          ByteBuffer out) {
+
+        if (!longLine.inLine() && length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        boolean tooLong = longLine.inLine() || length > LineConverter.MAX_LINE_LENGTH;
+
+        // Make sure there is room for the longest possible record
+        int room = converter.maxRecordLength(tooLong ? LineConverter.MAX_LINE_LENGTH : length);
+        if (out.remaining() < room) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + room));
+            out.flip();
+            out = bigger.put(out);
+        }
+
+        if (tooLong) {
+            longLine.append(line, 0, length);
+            converter.writeLongRecord(longLine, out);
+        } else {
+            converter.writeRecord(line, 0, length, out);
+        }
+        return out;
+    }
+
+    /**
+     * Wait for a chunk to be converted and then write its output.
+     *
+     * @param result output of a chunk that is being converted
+     * @param output stream the output of the chunk is written to
+     * @throws IOException problem converting the chunk or writing the output
+     */
+    private static void write(Future<ByteBuffer> result, OutputStream output) throws IOException {
+        try {
+            ByteBuffer out = result.get();
+            output.write(out.array(), out.arrayOffset() + out.position(), out.remaining());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while converting the file.");
+        } catch (ExecutionException e) {
+            throw new IOException("Problem converting the file.", e.getCause());
+        }
+    }
+}
@@ -2,12 +2,24 @@ package com.takehome.numbers;
 
 import org.apache.commons.cli.*;
 
+import javax.management.JMException;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This program is an application that takes integers in a base 10 format and converts them to their English
@@ -22,6 +34,44 @@ public class Numbers {
     // When reading from standard input, this is the maximum number of lines that will be read.
     private static int MAX_NUMBERS = 1000;
 
+    // Set when every line of standard input is to be converted as it is read
+    private boolean streamInput = false;
+
+    // Set when every line of a file is to be converted, using this many threads
+    private Path inputFile = null;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // Set when every file in a directory, or matching a glob, is to be converted into an output file of its own
+    private String batch = null;
+    private Path outputDirectory = null;
+
+    // Set when every number in a range is to be converted
+    private boolean convertRange = false;
+    private long rangeStart;
+    private long rangeEnd;
+
+    // Set when this is to be a server converting numbers for clients, or a client of such a server, on this port
+    private boolean serve = false;
+    private boolean connect = false;
+    private int port;
+
+    // Format of the output for each number converted, other than for a range or a server
+    private OutputFormat format = OutputFormat.TEXT;
+
+    // Set when statistics are to be printed to standard error once the numbers are converted
+    private boolean printStats = false;
+
+    // Set when the output is to be compressed with gzip as it is written, and the stream compressing it
+    private boolean compressOutput = false;
+    private BackgroundGzipOutputStream compressedOutput = null;
+    private PrintStream uncompressedOutput = null;
+
+    // Cache of the words for each integer converted, shared by every thread, null when not requested
+    private ConversionCache cache = null;
+
+    // Counters of the lines converted, only kept when statistics are requested, published over JMX while running
+    private ConversionMetrics metrics = null;
+
     /**
      * Main method for numbers being converted into their English language equivalent.
      *
@@ -29,12 +79,90 @@ public class Numbers {
      */
     public static void main(final String[] args) {
 
+        Numbers numbers = new Numbers();
         try {
-            Numbers numbers = new Numbers();
             List<String> integersToCovert = numbers.getProgramInput(args);
+            numbers.startMetrics(integersToCovert);
+            numbers.startOutputCompression();
+
+            if (numbers.serve) {
+
+                // Convert numbers for clients until the process is stopped, the statistics are printed when it is
+                try (ConversionServer server = new ConversionServer(numbers.port, numbers.metrics, numbers.cache)) {
+                    System.err.println("Listening on port " + server.getPort() + ".");
+                    server.serve();
+                } catch (IOException e) {
+                    System.out.println("Error: Problem serving on port " + numbers.port + ".");
+                }
+
+            } else if (numbers.connect) {
+
+                // Have a server convert the numbers, either those on the command line or every line of standard input
+                InputStream in;
+                if (integersToCovert != null && !integersToCovert.isEmpty()) {
+                    StringBuilder lines = new StringBuilder();
+                    for (String value : integersToCovert) {
+                        lines.append(value).append('\n');
+                    }
+                    in = new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8));
+                } else {
+                    // Only standard input is checked for compression, which blocks until it has something to read
+                    in = Compression.decompressIfGzip(System.in);
+                }
+                try {
+                    new ConversionClient(numbers.port).convert(in, System.out);
+                } catch (IOException e) {
+                    System.out.println("Error: Problem converting with the server on port " + numbers.port + ".");
+                }
 
-            // List would only be null if only help/usage was requested
-            if (integersToCovert != null) {
+            } else if (numbers.inputFile != null) {
+
+                // Convert every line of the file in parallel, a compressed file being decompressed as it is read
+                try {
+                    if (Compression.isGzip(numbers.inputFile)) {
+                        try (InputStream in = Compression.decompressIfGzip(Files.newInputStream(numbers.inputFile))) {
+                            numbers.convertStream(in);
+                        }
+                    } else {
+                        new MappedFileConverter(numbers.threads, MappedFileConverter.DEFAULT_CHUNK_SIZE,
+                                numbers.metrics, numbers.format, numbers.cache).convert(numbers.inputFile, System.out);
+                    }
+                } catch (IOException e) {
+                    System.out.println("Error: Problem reading the input file " + numbers.inputFile + ".");
+                }
+
+            } else if (numbers.batch != null) {
+
+                // Convert several files at a time, each into its own output file, reporting the time for each
+                try {
+                    List<Path> files = BatchConverter.findFiles(numbers.batch);
+                    if (files.isEmpty()) {
+                        System.out.println("No files found for the batch " + numbers.batch + ".");
+                    } else {
+                        new BatchConverter(numbers.threads, BatchConverter.DEFAULT_BUFFER_SIZE, numbers.metrics,
+                                numbers.format, numbers.cache).convert(files, numbers.outputDirectory, System.out);
+                    }
+                } catch (IOException e) {
+                    System.out.println("Error: Problem reading the files of the batch " + numbers.batch + ".");
+                }
+
+            } else if (numbers.streamInput) {
+
+                // Convert each line of standard input as it arrives, until there is no more input
+                numbers.convertStream(Compression.decompressIfGzip(System.in));
+
+            } else if (numbers.convertRange) {
+
+                // Convert every number in the range, only rebuilding the words for the higher digits when they change
+                try {
+                    new RangeConverter().convert(numbers.rangeStart, numbers.rangeEnd, Channels.newChannel(System.out));
+                    System.out.flush();
+                } catch (IOException e) {
+                    System.out.println("Error: Problem writing the range.");
+                }
+
+            } else if (integersToCovert != null) {
+                // List would only be null if only help/usage was requested
 
                 // Program was run, but no numbers were requested to be converted
                 if (integersToCovert.isEmpty()) {
@@ -42,16 +170,15 @@ public class Numbers {
                 } else {
 
                     // Convert the numbers input to their English language equivalent
-                    ParseInteger parse = new ParseInteger();
-                    IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+                    LineConverter converter = new LineConverter(numbers.metrics, numbers.format, numbers.cache);
+                    if (numbers.format != OutputFormat.TEXT) {
+                        printRecords(integersToCovert, converter);
+                    } else {
+                        StringBuilder result = new StringBuilder();
 
-                    for (String value : integersToCovert) {
-                        try {
-                            System.out.println(converter.convert(parse.parseIntegerFromString(value)));
-                        } catch (NullPointerException e) {
-                            System.out.println("Error: No number for the given line.");
-                        } catch (NumberFormatException | ArithmeticException e) {
-                            System.out.println("Error: " + e.getMessage());
+                        for (String value : integersToCovert) {
+                            result.setLength(0);
+                            System.out.println(converter.convertLine(value, result));
                         }
                     }
                 }
@@ -59,10 +186,153 @@ public class Numbers {
         } catch (ParseException e) {
             // Problem parsing the command line
             System.out.println("Error: " + e.getMessage());
-        } catch (NumberFormatException e) {
-            System.out.println("Error: Invalid argument for n, must be a positive integer between 1 and " + MAX_NUMBERS + ".");
         } catch (IOException e) {
             System.out.println("Error: Problem reading from standard input.");
+        } finally {
+            // Whatever happened, the compressed output is completed and the statistics of what was done are printed
+            numbers.finishOutputCompression();
+            numbers.stopMetrics();
+        }
+    }
+
+    /**
+     * Convert each line of the input as it arrives with a pipeline of threads, until there is no more input.
+     *
+     * @param input lines to be converted
+     * @throws IOException problem reading the input or writing the output
+     */
+    private void convertStream(InputStream input) throws IOException {
+        ConversionPipeline pipeline = new ConversionPipeline(threads, ConversionPipeline.DEFAULT_SLOT_SIZE, metrics,
+                format, cache);
+        pipeline.convert(input, System.out);
+        if (printStats) {
+            pipeline.printStats(System.err);
+        }
+    }
+
+    /**
+     * When compressed output is requested, send everything written to standard output through gzip on its own thread
+     * until {@link #finishOutputCompression()}.
+     *
+     * @throws IOException problem writing the start of the compressed output
+     */
+    private void startOutputCompression() throws IOException {
+        if (!compressOutput || serve) {
+            return;
+        }
+        uncompressedOutput = System.out;
+        compressedOutput = new BackgroundGzipOutputStream(uncompressedOutput);
+        System.setOut(new PrintStream(compressedOutput));
+    }
+
+    /**
+     * Finish compressing the output, waiting for all of it to be written, and write to standard output directly again.
+     */
+    private void finishOutputCompression() {
+        if (compressedOutput == null) {
+            return;
+        }
+
+        PrintStream compressing = System.out;
+        System.setOut(uncompressedOutput);
+        compressing.flush();
+        try {
+            compressedOutput.close();
+        } catch (IOException e) {
+            System.out.println("Error: Problem compressing the output.");
+        }
+        compressedOutput = null;
+    }
+
+    /**
+     * Lazily converts a stream of lines, one integer per line, into the lines the program would output for them: the
+     * English language equivalent of each integer or an error message saying why it could not be translated. The
+     * output is in the same order as the lines and the stream is parallel when the lines are, splitting evenly
+     * between threads when the lines come from a list or an array.
+     *
+     * @param lines lines of input, which may be <code>null</code> when there was no line (closed when the output
+     *              stream is closed)
+     * @return stream of the output for each line, without line separators
+     */
+    public static Stream<String> convertLines(Stream<String> lines) {
+        return StreamSupport.stream(new LineSpliterator(lines.spliterator()), lines.isParallel())
+                .onClose(lines::close);
+    }
+
+    /**
+     * Print the record for each number in the format of the converter, the numbers being encoded as UTF-8.
+     *
+     * @param integersToConvert numbers to be converted (entries may be null when there was no line)
+     * @param converter converter writing records in the format
+     */
+    private static void printRecords(List<String> integersToConvert, LineConverter converter) {
+        for (String value : integersToConvert) {
+            byte[] line = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer record = ByteBuffer.allocate(converter.maxRecordLength(line.length));
+            if (value == null) {
+                converter.writeMissingRecord(record);
+            } else {
+                converter.writeRecord(line, 0, line.length, record);
+            }
+            System.out.write(record.array(), 0, record.position());
+        }
+        System.out.flush();
+    }
+
+    /**
+     * When statistics are requested, start counting the lines converted and publish the counts, and those of any
+     * cache, over JMX. A server runs until the process is stopped, so its statistics are printed as the process exits.
+     *
+     * @param integersToConvert list of numbers to be processed, see {@link #getProgramInput(String[])}
+     */
+    private void startMetrics(List<String> integersToConvert) {
+        boolean converting = serve || inputFile != null || batch != null || streamInput
+                || (integersToConvert != null && !integersToConvert.isEmpty());
+        if (!printStats || connect || !converting) {
+            // Nothing is converted by this process, such as a client whose server converts and counts its lines
+            return;
+        }
+
+        metrics = new ConversionMetrics();
+        try {
+            metrics.register();
+            if (cache != null) {
+                cache.register();
+            }
+        } catch (JMException e) {
+            System.err.println("Statistics are not available over JMX: " + e.getMessage());
+        }
+        if (serve) {
+            ConversionMetrics serverMetrics = metrics;
+            ConversionCache serverCache = cache;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                serverMetrics.printSummary(System.err);
+                if (serverCache != null) {
+                    serverCache.printSummary(System.err);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Print the statistics of the lines converted, and of any cache, to standard error, and stop publishing them over JMX.
+     */
+    private void stopMetrics() {
+        if (metrics == null || serve) {
+            return;
+        }
+
+        metrics.printSummary(System.err);
+        if (cache != null) {
+            cache.printSummary(System.err);
+        }
+        try {
+            metrics.unregister();
+            if (cache != null) {
+                cache.unregister();
+            }
+        } catch (JMException e) {
+            // Only the JMX view of the statistics is affected
         }
     }
 
@@ -71,7 +341,9 @@ public class Numbers {
      * was requested. If only help is requested, no numbers will be accumulated.
      *
      * @param args command line arguments
-     * @return list of numbers to be processed (entries may be null or empty), null if only help was requested
+     * @return list of numbers to be processed (entries may be null or empty), null if only help was requested or
+     * standard input is to be streamed (also to a server), an input file, a batch of files or a range is to be
+     * converted or this is a server
      * @throws ParseException problem parsing the command line
      * @throws IOException problem reading lines from standard input
      */
@@ -87,10 +359,96 @@ public class Numbers {
         Option help = Option.builder("h")
                 .longOpt("help")
                 .build();
+        Option stream = Option.builder("s")
+                .desc("Convert every line read from standard input, which may be gzip compressed, until the end of input (ignored if integers on command line)")
+                .longOpt("stream")
+                .build();
+
+        Option input = Option.builder("i")
+                .desc("File of integers, one per line and optionally gzip compressed, to be converted using all processors (ignored if integers on command line)")
+                .longOpt("input")
+                .hasArg()
+                .argName("file")
+                .build();
+        Option batchOption = Option.builder()
+                .desc("Convert every file in a directory, or matching a glob such as 'feeds/*.txt', each into a file of the same name plus " + BatchConverter.OUTPUT_SUFFIX + " (ignored if integers on command line)")
+                .longOpt("batch")
+                .hasArg()
+                .argName("dir|glob")
+                .build();
+        Option outputDir = Option.builder()
+                .desc("Directory the output files of a batch are written to. Default: the directory of each file")
+                .longOpt("output-dir")
+                .hasArg()
+                .argName("dir")
+                .build();
+        Option threadCount = Option.builder("t")
+                .desc("Number of threads converting an input file, stream or batch. Default: number of processors")
+                .longOpt("threads")
+                .hasArg()
+                .type(Integer.class)
+                .build();
+        Option range = Option.builder("r")
+                .desc("Convert every integer from start to end, inclusive (ignored if integers on command line)")
+                .longOpt("range")
+                .hasArg()
+                .argName("start..end")
+                .build();
+        Option serveOption = Option.builder()
+                .desc("Run a server converting lines sent to this port on the loopback interface, until stopped")
+                .longOpt("serve")
+                .hasArg()
+                .argName("port")
+                .build();
+        Option connectOption = Option.builder()
+                .desc("Have the server on this port convert the integers on the command line or standard input")
+                .longOpt("connect")
+                .hasArg()
+                .argName("port")
+                .build();
+        Option formatOption = Option.builder()
+                .desc("Format of the output: text, jsonl, csv or binary (not for a range or server). Default: text")
+                .longOpt("format")
+                .hasArg()
+                .argName("format")
+                .build();
+        Option cacheOption = Option.builder()
+                .desc("Cache the words for the integers converted, for input where a few integers are repeated often (not for a range or client)")
+                .longOpt("cache")
+                .build();
+        Option cacheCapacity = Option.builder()
+                .desc("Number of integers the cache holds, also turning the cache on. Range: 1-" + ConversionCache.MAX_CAPACITY + ", Default: " + ConversionCache.DEFAULT_CAPACITY)
+                .longOpt("cache-capacity")
+                .hasArg()
+                .argName("entries")
+                .build();
+        Option outputCompress = Option.builder()
+                .desc("Compress the output as it is written, on a thread of its own: gzip (not for a server)")
+                .longOpt("output-compress")
+                .hasArg()
+                .argName("format")
+                .build();
+        Option stats = Option.builder()
+                .desc("Print statistics of the lines converted, and of each stage of converting a stream, to standard error (also published over JMX while running)")
+                .longOpt("stats")
+                .build();
 
         Options options = new Options();
         options.addOption(count);
         options.addOption(help);
+        options.addOption(input);
+        options.addOption(range);
+        options.addOption(batchOption);
+        options.addOption(outputDir);
+        options.addOption(stream);
+        options.addOption(threadCount);
+        options.addOption(stats);
+        options.addOption(formatOption);
+        options.addOption(outputCompress);
+        options.addOption(cacheOption);
+        options.addOption(cacheCapacity);
+        options.addOption(serveOption);
+        options.addOption(connectOption);
 
         boolean helpRequested = false;
         Integer processLines = 0;
@@ -102,16 +460,55 @@ public class Numbers {
         if (commandLine.hasOption("h")) {
             HelpFormatter formatter = new HelpFormatter();
             String header = "Converts integers into English words.";
-            formatter.printHelp("numbers [-h] [-n <arg>] [<integer1> <integer2>...]", header, options, "\n\n", false);
+            formatter.printHelp("numbers [options] [<integer1> <integer2>...]", header, options, "\n\n", false);
             helpRequested = true;
         }
 
         if (commandLine.hasOption("n")) {
-            processLines = Integer.parseInt(commandLine.getOptionValue("n"));
-            if (processLines <= 0) {
-                throw new NumberFormatException("Count specified was less than or equal to zero.");
-            } else if (processLines > MAX_NUMBERS) {
-                throw new NumberFormatException("Count specified was greater than " + MAX_NUMBERS + ".");
+            processLines = parseOption(commandLine.getOptionValue("n"), 1, MAX_NUMBERS,
+                    "Invalid argument for n, must be a positive integer between 1 and " + MAX_NUMBERS + ".");
+        }
+
+        printStats = commandLine.hasOption("stats");
+
+        if (commandLine.hasOption("output-compress")) {
+            if (!"gzip".equalsIgnoreCase(commandLine.getOptionValue("output-compress"))) {
+                throw new ParseException("Invalid argument for output-compress, must be gzip.");
+            }
+            compressOutput = true;
+        }
+
+        if (commandLine.hasOption("format")) {
+            format = parseFormat(commandLine.getOptionValue("format"));
+        }
+
+        if (commandLine.hasOption("cache") || commandLine.hasOption("cache-capacity")) {
+            int capacity = ConversionCache.DEFAULT_CAPACITY;
+            if (commandLine.hasOption("cache-capacity")) {
+                capacity = parseOption(commandLine.getOptionValue("cache-capacity"), 1, ConversionCache.MAX_CAPACITY,
+                        "Invalid argument for cache-capacity, must be a positive integer up to " + ConversionCache.MAX_CAPACITY + ".");
+            }
+            cache = new ConversionCache(new IntegerToEnglishWordConverter(), capacity);
+        }
+
+        if (commandLine.hasOption("t")) {
+            threads = parseOption(commandLine.getOptionValue("t"), 1, Integer.MAX_VALUE,
+                    "Invalid argument for t, must be a positive integer.");
+        }
+
+        if (commandLine.hasOption("serve")) {
+            port = parseOption(commandLine.getOptionValue("serve"), 0, 65535,
+                    "Invalid argument for serve, must be a port number between 0 and 65535.");
+            serve = true;
+            return null;
+        }
+        if (commandLine.hasOption("connect")) {
+            port = parseOption(commandLine.getOptionValue("connect"), 0, 65535,
+                    "Invalid argument for connect, must be a port number between 0 and 65535.");
+            connect = true;
+            if (commandLine.getArgs().length == 0) {
+                // Standard input is sent to the server as it is read, so there is no list of numbers
+                return null;
             }
         }
 
@@ -121,9 +518,32 @@ public class Numbers {
         if (remainder.length > 0) {
             // If there are integers on the command line, process those only
             Collections.addAll(integersToConvert, remainder);
+        } else if (commandLine.hasOption("i")) {
+            // The file is converted directly, so there is no list of numbers
+            inputFile = Paths.get(commandLine.getOptionValue("i"));
+            return null;
+        } else if (commandLine.hasOption("batch")) {
+            // The files are converted directly, so there is no list of numbers
+            batch = commandLine.getOptionValue("batch");
+            if (commandLine.hasOption("output-dir")) {
+                outputDirectory = Paths.get(commandLine.getOptionValue("output-dir"));
+            }
+            return null;
+        } else if (commandLine.hasOption("s")) {
+            // Standard input is converted as it is read, so there is no list of numbers
+            streamInput = true;
+            return null;
+        } else if (commandLine.hasOption("r")) {
+            // The numbers in the range are generated, so there is no list of numbers and no lines to count
+            if (printStats) {
+                throw new ParseException("Invalid option stats, there are no lines to count when converting a range.");
+            }
+            parseRange(commandLine.getOptionValue("r"));
+            convertRange = true;
+            return null;
         } else if (processLines > 0) {
             // If there was a request to read numbers from standard input, read in each line as a number
-            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            BufferedReader in = new BufferedReader(new InputStreamReader(Compression.decompressIfGzip(System.in)));
             while (processLines-- > 0) {
                 integersToConvert.add(in.readLine());
             }
@@ -134,4 +554,58 @@ public class Numbers {
 
         return integersToConvert;
     }
+
+    /**
+     * Set the start and end of the range of numbers to be converted.
+     *
+     * @param value argument of the range option, two integers separated by ".."
+     * @throws ParseException when the argument is not a valid range
+     */
+    private void parseRange(String value) throws ParseException {
+        int separator = value.indexOf("..");
+        try {
+            if (separator >= 0) {
+                ParseInteger parse = new ParseInteger();
+                rangeStart = parse.parseLongFromChars(value, 0, separator);
+                rangeEnd = parse.parseLongFromChars(value, separator + 2, value.length());
+                if (rangeStart <= rangeEnd) {
+                    return;
+                }
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            // Reported below
+        }
+        throw new ParseException("Invalid argument for r, must be <start>..<end> where start is not after end.");
+    }
+
+    /**
+     * @param value argument of the format option
+     * @return the format named by the argument, in any case
+     * @throws ParseException when the argument is not the name of a format
+     */
+    private static OutputFormat parseFormat(String value) throws ParseException {
+        for (OutputFormat candidate : OutputFormat.values()) {
+            if (candidate.name().equalsIgnoreCase(value)) {
+                return candidate;
+            }
+        }
+        throw new ParseException("Invalid argument for format, must be one of text, jsonl, csv or binary.");
+    }
+
+    /**
+     * @param value argument of an option that is an integer
+     * @param min smallest valid integer
+     * @param max largest valid integer
+     * @param message error reported when the argument is not a valid integer
+     * @return the integer from the argument
+     * @throws ParseException when the argument is not an integer from the smallest to the largest valid integer
+     */
+    private static int parseOption(String value, int min, int max, String message) throws ParseException {
+        ParseResult result = new ParseResult();
+        new ParseInteger().tryParseIntegerFromString(value, result);
+        if (!result.isOk() || result.getValue() < min || result.getValue() > max) {
+            throw new ParseException(message);
+        }
+        return result.getValue();
+    }
 }
@@ -0,0 +1,295 @@
+package com.takehome.numbers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * How the output for each line of input is framed. The text format is the words, or an error message, on a line of
+ * their own. The other formats are for other programs to read, so each record carries the input text, the integer
+ * parsed from it and its words, or an error code instead of the integer and words. The error codes are the names of
+ * the {@link ParseStatus} values, and <code>NO_NUMBER</code> for a line that was missing.
+ * <p>
+ * 1. JSONL: one JSON object per line, ended with a line feed.
+ *    For example: {"input":"45","value":45,"words":"Forty five"} or {"input":"4x","error":"NON_NUMERIC"}
+ * <p>
+ * 2. CSV: the columns input, value, words and error, each record ended with a carriage return and line feed, with
+ *    the input quoted when it holds a comma, quote or carriage return. There is no header row.
+ *    For example: 45,45,Forty five, or 4x,,,NON_NUMERIC
+ * <p>
+ * 3. BINARY: each record is the big endian int length of the rest of the record, so a reader can skip a record without
+ *    reading it, followed by a status byte (the ordinal of the {@link ParseStatus}, or 4 for a missing line), the
+ *    int value (zero for an error), the int length and bytes of the input (-1 and none for a missing line) and the
+ *    int length and bytes of the words (zero and none for an error).
+ * <p>
+ * A line longer than {@link LineConverter#MAX_LINE_LENGTH} is not held whole, so only its first bytes are echoed as
+ * its input and the record says so: JSONL adds "inputLength" with the number of bytes in the whole line
+ * (for example {"input":"0000...0000","inputLength":202,"value":42,"words":"Forty two"}), CSV ends the input with
+ * <code>...</code>, and BINARY sets the top bit of the status byte and follows the input with the long length of the
+ * whole line.
+ * <p>
+ * Records are written by hand straight into the output buffer, escaping the input as it is copied. The input is copied
+ * as it was read, so JSON and CSV output are only valid UTF-8 when the input is.
+ *
+ * @author jeff.snyder
+ */
+enum OutputFormat {
+
+    TEXT {
+        @Override
+        int maxLength(int inputLength) {
+            return LineConverter.MAX_LENGTH + LINE_SEPARATOR.length;
+        }
+
+        @Override
+        void write(byte[] line, int start, int end, long inputLength, ParseStatus status, int value, ByteBuffer words,
+                   ByteBuffer out) {
+            // The words hold the error message when the line could not be converted
+            putWords(words, out);
+            out.put(LINE_SEPARATOR);
+        }
+
+        @Override
+        void writeMissing(ByteBuffer out) {
+            out.put(NO_NUMBER_TEXT).put(LINE_SEPARATOR);
+        }
+    },
+
+    JSONL {
+        @Override
+        int maxLength(int inputLength) {
+            // Every byte of the input may be escaped as six bytes
+            return inputLength * 6 + LineConverter.MAX_LENGTH + 96;
+        }
+
+        @Override
+        void write(byte[] line, int start, int end, long inputLength, ParseStatus status, int value, ByteBuffer words,
+                   ByteBuffer out) {
+            out.put(JSON_INPUT).put((byte) '"');
+            putJsonString(line, start, end, out);
+            out.put((byte) '"');
+            if (inputLength > end - start) {
+                out.put(JSON_INPUT_LENGTH);
+                putDecimal(inputLength, out);
+            }
+
+            if (status == ParseStatus.OK) {
+                out.put(JSON_VALUE);
+                putDecimal(value, out);
+                out.put(JSON_WORDS);
+                putWords(words, out);
+                out.put((byte) '"');
+            } else {
+                out.put(JSON_ERROR).put(ERROR_CODES[status.ordinal()]).put((byte) '"');
+            }
+            out.put((byte) '}').put((byte) '\n');
+        }
+
+        @Override
+        void writeMissing(ByteBuffer out) {
+            out.put(JSON_INPUT).put(JSON_NULL).put(JSON_ERROR).put(NO_NUMBER_CODE).put((byte) '"');
+            out.put((byte) '}').put((byte) '\n');
+        }
+    },
+
+    CSV {
+        @Override
+        int maxLength(int inputLength) {
+            // Every byte of the input may be a quote, which is doubled, and the input may be quoted and cut short
+            return inputLength * 2 + LineConverter.MAX_LENGTH + 32;
+        }
+
+        @Override
+        void write(byte[] line, int start, int end, long inputLength, ParseStatus status, int value, ByteBuffer words,
+                   ByteBuffer out) {
+            putCsvField(line, start, end, inputLength > end - start, out);
+            out.put((byte) ',');
+            if (status == ParseStatus.OK) {
+                putDecimal(value, out);
+                out.put((byte) ',');
+                putWords(words, out);
+                out.put((byte) ',');
+            } else {
+                out.put((byte) ',').put((byte) ',').put(ERROR_CODES[status.ordinal()]);
+            }
+            out.put(CRLF);
+        }
+
+        @Override
+        void writeMissing(ByteBuffer out) {
+            out.put((byte) ',').put((byte) ',').put((byte) ',').put(NO_NUMBER_CODE).put(CRLF);
+        }
+    },
+
+    BINARY {
+        @Override
+        int maxLength(int inputLength) {
+            return inputLength + LineConverter.MAX_LENGTH + 25;
+        }
+
+        @Override
+        void write(byte[] line, int start, int end, long inputLength, ParseStatus status, int value, ByteBuffer words,
+                   ByteBuffer out) {
+            boolean ok = status == ParseStatus.OK;
+            boolean truncated = inputLength > end - start;
+            int wordsLength = ok ? words.position() : 0;
+            out.putInt(13 + end - start + (truncated ? 8 : 0) + wordsLength);
+            out.put((byte) (status.ordinal() | (truncated ? TRUNCATED : 0)));
+            out.putInt(ok ? value : 0);
+            out.putInt(end - start).put(line, start, end - start);
+            if (truncated) {
+                out.putLong(inputLength);
+            }
+            out.putInt(wordsLength);
+            if (ok) {
+                putWords(words, out);
+            }
+        }
+
+        @Override
+        void writeMissing(ByteBuffer out) {
+            out.putInt(13).put((byte) ParseStatus.values().length).putInt(0).putInt(-1).putInt(0);
+        }
+    };
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] NO_NUMBER_TEXT =
+            (LineConverter.ERROR_PREFIX + LineConverter.NO_NUMBER).getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] JSON_INPUT = ascii("{\"input\":");
+    private static final byte[] JSON_INPUT_LENGTH = ascii(",\"inputLength\":");
+    private static final byte[] JSON_VALUE = ascii(",\"value\":");
+    private static final byte[] JSON_WORDS = ascii(",\"words\":\"");
+    private static final byte[] JSON_ERROR = ascii(",\"error\":\"");
+    private static final byte[] JSON_NULL = ascii("null");
+    private static final byte[] HEX_DIGITS = ascii("0123456789abcdef");
+    private static final byte[] ELLIPSIS = ascii("...");
+
+    // Bit set in the binary status byte when only the first bytes of the input are echoed
+    private static final int TRUNCATED = 0x80;
+
+    // Error code of each parse status, by ordinal (there is no error code for a parsed integer)
+    private static final byte[][] ERROR_CODES = new byte[ParseStatus.values().length][];
+    private static final byte[] NO_NUMBER_CODE = ascii("NO_NUMBER");
+
+    static {
+        for (ParseStatus status : ParseStatus.values()) {
+            ERROR_CODES[status.ordinal()] = ascii(status.name());
+        }
+    }
+
+    /**
+     * @param inputLength number of bytes in the line of input
+     * @return maximum number of bytes in the record for the line
+     */
+    abstract int maxLength(int inputLength);
+
+    /**
+     * Write the record for a line of input.
+     *
+     * @param line bytes containing the line of input
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line
+     * @param inputLength number of bytes in the whole line, more than are given when it was too long to be held
+     * @param status outcome of parsing the line
+     * @param value integer parsed from the line, when the status is OK
+     * @param words buffer holding the encoded words (or error message) for the line, from its start to its position
+     * @param out buffer the record is written to, which needs {@link #maxLength(int)} bytes remaining
+     */
+    abstract void write(byte[] line, int start, int end, long inputLength, ParseStatus status, int value,
+                        ByteBuffer words, ByteBuffer out);
+
+    /**
+     * Write the record for a line that was missing from the input.
+     *
+     * @param out buffer the record is written to, which needs {@link #maxLength(int)} of zero bytes remaining
+     */
+    abstract void writeMissing(ByteBuffer out);
+
+    private static void putWords(ByteBuffer words, ByteBuffer out) {
+        out.put(words.array(), 0, words.position());
+    }
+
+    /**
+     * Write the bytes escaped for a JSON string. Lines almost never need escaping, so they are copied in one go when
+     * they do not.
+     */
+    private static void putJsonString(byte[] line, int start, int end, ByteBuffer out) {
+        int i = start;
+        while (i < end && !needsJsonEscape(line[i])) {
+            i++;
+        }
+        out.put(line, start, i - start);
+
+        for (; i<end; i++) {
+            byte b = line[i];
+            if (b == '"' || b == '\\') {
+                out.put((byte) '\\').put(b);
+            } else if (b >= 0 && b < ' ') {
+                out.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                        .put(HEX_DIGITS[b >> 4]).put(HEX_DIGITS[b & 0xf]);
+            } else {
+                // Including the bytes of multi-byte UTF-8 characters, which are negative
+                out.put(b);
+            }
+        }
+    }
+
+    private static boolean needsJsonEscape(byte b) {
+        return b == '"' || b == '\\' || (b >= 0 && b < ' ');
+    }
+
+    private static void putCsvField(byte[] line, int start, int end, boolean truncated, ByteBuffer out) {
+        boolean quote = false;
+        for (int i=start; i<end && !quote; i++) {
+            quote = line[i] == ',' || line[i] == '"' || line[i] == '\r';
+        }
+        if (!quote) {
+            out.put(line, start, end - start);
+            if (truncated) {
+                out.put(ELLIPSIS);
+            }
+            return;
+        }
+
+        out.put((byte) '"');
+        for (int i=start; i<end; i++) {
+            if (line[i] == '"') {
+                out.put((byte) '"');
+            }
+            out.put(line[i]);
+        }
+        if (truncated) {
+            out.put(ELLIPSIS);
+        }
+        out.put((byte) '"');
+    }
+
+    /**
+     * Write the decimal digits of an integer or length, with a minus sign when it is negative.
+     */
+    private static void putDecimal(long value, ByteBuffer out) {
+        long remaining = value;
+        if (remaining < 0) {
+            out.put((byte) '-');
+            remaining = -remaining;
+        }
+
+        int digits = 1;
+        for (long rest=remaining / 10; rest>0; rest/=10) {
+            digits++;
+        }
+
+        // The digits are filled in from the last one back
+        int position = out.position();
+        for (int i=position + digits - 1; i>=position; i--) {
+            out.put(i, (byte) ('0' + remaining % 10));
+            remaining /= 10;
+        }
+        out.position(position + digits);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,19 +1,47 @@
 package com.takehome.numbers;
 
-import java.util.regex.Pattern;
-
 /**
  * This class is is used to verify that a string can be represented by an integer. If it can be, that integer is
  * returned. Otherwise, an appropriate exception is thrown.
+ * <p>
+ * The input is scanned once, character by character, without regular expressions or creating any intermediate
+ * strings. Besides strings, a slice of a <code>CharSequence</code>, a <code>char[]</code> or an ASCII encoded
+ * <code>byte[]</code> can be parsed directly. A 64-bit <code>long</code> can be parsed with the same rules.
+ * <p>
+ * ASCII encoded bytes, as read from a file or socket, are parsed eight digits at a time: eight bytes are loaded into a
+ * <code>long</code>, checked to all be digits with a few bitwise operations and combined into their value with three
+ * multiplications (SWAR, SIMD within a register). Fewer than eight digits left at the end are parsed one at a time.
+ * <p>
+ * Each of the integer parse methods has a variant that reports invalid input with a {@link ParseStatus} in a reusable
+ * {@link ParseResult} instead of throwing an exception, which is much cheaper when a lot of the input is invalid.
  *
  * @author jeff.snyder
  */
 public class ParseInteger {
 
-    private Pattern NUMERIC_CHARACTERS = Pattern.compile("^[\\-]?\\d+$");
-    private Pattern LEADING_ZEROS = Pattern.compile("^[\\-]?[0]+.*");
-    private Pattern LEADING_ZEROS_WITH_DIGIT = Pattern.compile("^[\\-]?[0]+[1-9]+.*");
-    private Pattern VALID_LENGTH = Pattern.compile("^[-]?\\d{1,10}");
+    static final String NON_NUMERIC = "Non-numeric character in input.";
+    static final String TOO_LARGE = "Number can not be stored in a 32 bit integer.";
+    static final String TOO_LARGE_LONG = "Number can not be stored in a 64 bit integer.";
+
+    // Accumulating the value as a negative number allows Integer.MIN_VALUE to be represented without overflowing
+    private static final int POSITIVE_LIMIT = -Integer.MAX_VALUE;
+    private static final int NEGATIVE_LIMIT = Integer.MIN_VALUE;
+    private static final long POSITIVE_LONG_LIMIT = -Long.MAX_VALUE;
+    private static final long NEGATIVE_LONG_LIMIT = Long.MIN_VALUE;
+
+    // Number of digits parsed at a time from bytes, and masks of the same byte in each of the eight bytes of a long
+    static final int SWAR_DIGITS = 8;
+    private static final long ZEROS = 0x3030303030303030L;
+    private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+    private static final long SIXES = 0x0606060606060606L;
+    private static final long DIGIT_HIGH_NIBBLES = 0x3333333333333333L;
+
+    // A scan returns the status (its ordinal) in the high 32 bits and the integer in the low 32 bits, so it needs
+    // neither an exception nor a holder to report the outcome
+    private static final int OK = ParseStatus.OK.ordinal();
+    private static final int EMPTY = ParseStatus.EMPTY.ordinal();
+    private static final int NON_NUMERIC_CHARACTER = ParseStatus.NON_NUMERIC.ordinal();
+    private static final int OVERFLOW = ParseStatus.OVERFLOW.ordinal();
 
     /**
      * This method is used to take a string and return its integer equivalent. Any leading zeros are ignored and this
@@ -25,40 +53,405 @@ public class ParseInteger {
      * @throws ArithmeticException when the input value is too big (either positive or negative) to fit in a 32-bit integer
      */
     public int parseIntegerFromString(String value) {
+        return toInteger(scan(value, 0, value.length()));
+    }
+
+    /**
+     * Parse the integer in a slice of the characters. Leading and trailing white space (any character up to and
+     * including a space, the same as <code>String.trim()</code>) and leading zeros are ignored.
+     *
+     * @param value characters containing an integer
+     * @param start index of the first character of the slice
+     * @param end index after the last character of the slice
+     * @return an integer parsed from the slice
+     * @throws NumberFormatException when there is a non-numeric character is the slice
+     * @throws ArithmeticException when the slice is too big (either positive or negative) to fit in a 32-bit integer
+     */
+    public int parseIntegerFromChars(CharSequence value, int start, int end) {
+        return toInteger(scan(value, start, end));
+    }
+
+    /**
+     * Parse the integer in a slice of the characters. See {@link #parseIntegerFromChars(CharSequence, int, int)}.
+     *
+     * @param value characters containing an integer
+     * @param start index of the first character of the slice
+     * @param end index after the last character of the slice
+     * @return an integer parsed from the slice
+     * @throws NumberFormatException when there is a non-numeric character is the slice
+     * @throws ArithmeticException when the slice is too big (either positive or negative) to fit in a 32-bit integer
+     */
+    public int parseIntegerFromChars(char[] value, int start, int end) {
+        return toInteger(scan(value, start, end));
+    }
+
+    /**
+     * Parse the integer in a slice of ASCII encoded bytes. See
+     * {@link #parseIntegerFromChars(CharSequence, int, int)}.
+     *
+     * @param value ASCII encoded characters containing an integer
+     * @param start index of the first byte of the slice
+     * @param end index after the last byte of the slice
+     * @return an integer parsed from the slice
+     * @throws NumberFormatException when there is a non-numeric character is the slice
+     * @throws ArithmeticException when the slice is too big (either positive or negative) to fit in a 32-bit integer
+     */
+    public int parseIntegerFromBytes(byte[] value, int start, int end) {
+        return toInteger(scan(value, start, end));
+    }
 
-        // Ignore leading or trailing white space and any leading zeros.
-        String current = value.trim();
+    /**
+     * Parse the integer in a string without throwing an exception when it is not valid. See
+     * {@link #parseIntegerFromString(String)}.
+     *
+     * @param value string representing an integer
+     * @param result holder the status and integer are put in
+     * @return the status, which is {@link ParseStatus#OK} when the integer in the result is valid
+     */
+    public ParseStatus tryParseIntegerFromString(String value, ParseResult result) {
+        return toResult(scan(value, 0, value.length()), result);
+    }
 
-        if (! NUMERIC_CHARACTERS.matcher(current).matches()) {
-            throw new NumberFormatException("Non-numeric character in input.");
+    /**
+     * Parse the integer in a slice of the characters without throwing an exception when it is not valid. See
+     * {@link #parseIntegerFromChars(CharSequence, int, int)}.
+     *
+     * @param value characters containing an integer
+     * @param start index of the first character of the slice
+     * @param end index after the last character of the slice
+     * @param result holder the status and integer are put in
+     * @return the status, which is {@link ParseStatus#OK} when the integer in the result is valid
+     */
+    public ParseStatus tryParseIntegerFromChars(CharSequence value, int start, int end, ParseResult result) {
+        return toResult(scan(value, start, end), result);
+    }
+
+    /**
+     * Parse the integer in a slice of the characters without throwing an exception when it is not valid. See
+     * {@link #parseIntegerFromChars(CharSequence, int, int)}.
+     *
+     * @param value characters containing an integer
+     * @param start index of the first character of the slice
+     * @param end index after the last character of the slice
+     * @param result holder the status and integer are put in
+     * @return the status, which is {@link ParseStatus#OK} when the integer in the result is valid
+     */
+    public ParseStatus tryParseIntegerFromChars(char[] value, int start, int end, ParseResult result) {
+        return toResult(scan(value, start, end), result);
+    }
+
+    /**
+     * Parse the integer in a slice of ASCII encoded bytes without throwing an exception when it is not valid. See
+     * {@link #parseIntegerFromChars(CharSequence, int, int)}.
+     *
+     * @param value ASCII encoded characters containing an integer
+     * @param start index of the first byte of the slice
+     * @param end index after the last byte of the slice
+     * @param result holder the status and integer are put in
+     * @return the status, which is {@link ParseStatus#OK} when the integer in the result is valid
+     */
+    public ParseStatus tryParseIntegerFromBytes(byte[] value, int start, int end, ParseResult result) {
+        return toResult(scan(value, start, end), result);
+    }
+
+    /**
+     * This method is used to take a string and return its long equivalent, with the same rules as
+     * {@link #parseIntegerFromString(String)}.
+     *
+     * @param value string representing a long
+     * @return a long parsed from the input value
+     * @throws NumberFormatException when there is a non-numeric character is the input value
+     * @throws ArithmeticException when the input value is too big (either positive or negative) to fit in a 64-bit long
+     */
+    public long parseLongFromString(String value) {
+        return parseLongFromChars(value, 0, value.length());
+    }
+
+    /**
+     * Parse the long in a slice of the characters. See {@link #parseIntegerFromChars(CharSequence, int, int)}.
+     *
+     * @param value characters containing a long
+     * @param start index of the first character of the slice
+     * @param end index after the last character of the slice
+     * @return a long parsed from the slice
+     * @throws NumberFormatException when there is a non-numeric character is the slice
+     * @throws ArithmeticException when the slice is too big (either positive or negative) to fit in a 64-bit long
+     */
+    public long parseLongFromChars(CharSequence value, int start, int end) {
+
+        // Ignore leading or trailing white space
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
         }
 
-        // Looking for leading zeros that can be removed
-        if (LEADING_ZEROS.matcher(current).matches()) {
+        boolean negative = start < end && value.charAt(start) == '-';
+        if (negative) {
+            start++;
+        }
+        if (start == end) {
+            throw new NumberFormatException(NON_NUMERIC);
+        }
+
+        // Every character is checked before an overflow is reported, as a non-numeric character takes precedence
+        long limit = negative ? NEGATIVE_LONG_LIMIT : POSITIVE_LONG_LIMIT;
+        long result = 0;
+        boolean overflow = false;
+        for (int i=start; i<end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(NON_NUMERIC);
+            }
+            if (!overflow) {
+                overflow = result < (limit + digit) / 10;
+                result = result * 10 - digit;
+            }
+        }
+
+        if (overflow) {
+            throw new ArithmeticException(TOO_LARGE_LONG);
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Scan the slice of characters for an integer, character by character.
+     *
+     * @param value characters containing an integer
+     * @param start index of the first character of the slice
+     * @param end index after the last character of the slice
+     * @return the status and the integer parsed, see {@link #scanned(int, int)}
+     */
+    private static long scan(CharSequence value, int start, int end) {
 
-            // Remove leading zeros when there is a non-zero digit in the string
-            if (LEADING_ZEROS_WITH_DIGIT.matcher(current).matches()) {
-                current = current.replaceFirst("^[0]+", "");
+        // Ignore leading or trailing white space
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return scanned(EMPTY, 0);
+        }
 
-                // Ignore any leading zeros after the minus sign
-                current = current.replaceFirst("^-[0]+", "-");
-            } else {
-                // String was all zeros, so set to zero.
-                current = "0";
+        boolean negative = value.charAt(start) == '-';
+        if (negative) {
+            start++;
+        }
+        if (start == end) {
+            return scanned(NON_NUMERIC_CHARACTER, 0);
+        }
+
+        // Every character is checked before an overflow is reported, as a non-numeric character takes precedence
+        int limit = negative ? NEGATIVE_LIMIT : POSITIVE_LIMIT;
+        int result = 0;
+        boolean overflow = false;
+        for (int i=start; i<end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return scanned(NON_NUMERIC_CHARACTER, 0);
+            }
+            if (!overflow) {
+                overflow = result < (limit + digit) / 10;
+                result = result * 10 - digit;
+            }
+        }
+
+        return finish(result, negative, overflow);
+    }
+
+    /**
+     * Scan the slice of characters for an integer. See {@link #scan(CharSequence, int, int)}.
+     */
+    private static long scan(char[] value, int start, int end) {
+
+        // Ignore leading or trailing white space
+        while (start < end && value[start] <= ' ') {
+            start++;
+        }
+        while (end > start && value[end - 1] <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return scanned(EMPTY, 0);
+        }
+
+        boolean negative = value[start] == '-';
+        if (negative) {
+            start++;
+        }
+        if (start == end) {
+            return scanned(NON_NUMERIC_CHARACTER, 0);
+        }
+
+        // Every character is checked before an overflow is reported, as a non-numeric character takes precedence
+        int limit = negative ? NEGATIVE_LIMIT : POSITIVE_LIMIT;
+        int result = 0;
+        boolean overflow = false;
+        for (int i=start; i<end; i++) {
+            int digit = value[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return scanned(NON_NUMERIC_CHARACTER, 0);
+            }
+            if (!overflow) {
+                overflow = result < (limit + digit) / 10;
+                result = result * 10 - digit;
+            }
+        }
+
+        return finish(result, negative, overflow);
+    }
+
+    /**
+     * Scan the slice of ASCII encoded bytes for an integer, eight digits at a time while there are at least eight left.
+     * See {@link #scan(CharSequence, int, int)}.
+     */
+    private static long scan(byte[] value, int start, int end) {
+
+        // Ignore leading or trailing white space (bytes are unsigned so non-ASCII bytes are not white space)
+        while (start < end && (value[start] & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (value[end - 1] & 0xff) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return scanned(EMPTY, 0);
+        }
+
+        boolean negative = value[start] == '-';
+        if (negative) {
+            start++;
+        }
+        if (start == end) {
+            return scanned(NON_NUMERIC_CHARACTER, 0);
+        }
+
+        // The value is accumulated as a positive long, which can not overflow before it is past the limit as no more
+        // than eight digits are added at a time. Every character is checked before an overflow is reported, as a
+        // non-numeric character takes precedence.
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long result = 0;
+        boolean overflow = false;
+        int i = start;
+        if (end - i >= SWAR_DIGITS) {
+            do {
+                long eight = eightBytes(value, i);
+                if (!isEightDigits(eight)) {
+                    return scanned(NON_NUMERIC_CHARACTER, 0);
+                }
+                if (!overflow) {
+                    result = result * 100000000L + eightDigitsValue(eight);
+                    overflow = result > limit;
+                }
+                i += SWAR_DIGITS;
+            } while (end - i >= SWAR_DIGITS);
+        }
+        for (; i<end; i++) {
+            int digit = value[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return scanned(NON_NUMERIC_CHARACTER, 0);
+            }
+            if (!overflow) {
+                result = result * 10 + digit;
+                overflow = result > limit;
             }
         }
 
-        // Determine if the length is too long for a valid integer (this also means it will fit into a long)
-        if (! VALID_LENGTH.matcher(current).matches()) {
-            throw new ArithmeticException("Number can not be stored in a 32 bit integer.");
+        if (overflow) {
+            return scanned(OVERFLOW, 0);
         }
+        return scanned(OK, (int) (negative ? -result : result));
+    }
 
-        // Determine if the value would fit into an integer's range
-        Long result = Long.parseLong(current);
-        if (result > Integer.MAX_VALUE || result < Integer.MIN_VALUE) {
-            throw new ArithmeticException("Number can not be stored in a 32 bit integer.");
+    /**
+     * Assemble eight bytes into a long with shifts, rather than through a <code>ByteBuffer</code> view, so nothing is
+     * allocated whether or not the JIT can eliminate the view.
+     *
+     * @param value ASCII encoded characters
+     * @param i index of the first of the eight characters
+     * @return the characters, the first in the lowest byte
+     */
+    static long eightBytes(byte[] value, int i) {
+        return (value[i] & 0xFFL)
+                | (value[i + 1] & 0xFFL) << 8
+                | (value[i + 2] & 0xFFL) << 16
+                | (value[i + 3] & 0xFFL) << 24
+                | (value[i + 4] & 0xFFL) << 32
+                | (value[i + 5] & 0xFFL) << 40
+                | (value[i + 6] & 0xFFL) << 48
+                | (value[i + 7] & 0xFFL) << 56;
+    }
+
+    /**
+     * A byte is a digit when its high nibble is 3 and adding 6 to it does not carry out of its low nibble. No byte can
+     * carry into the next one unless its own high nibble is F, which already fails.
+     *
+     * @param eight eight ASCII encoded characters, the first in the lowest byte
+     * @return <code>true</code> if every one of the characters is a digit
+     */
+    static boolean isEightDigits(long eight) {
+        return ((eight & HIGH_NIBBLES) | ((eight + SIXES) & HIGH_NIBBLES) >>> 4) == DIGIT_HIGH_NIBBLES;
+    }
+
+    /**
+     * Combine eight digits into their value, pairing up neighbouring digits, then pairs, then groups of four, each
+     * with a single multiplication.
+     *
+     * @param eight eight ASCII encoded digits, the first (most significant) in the lowest byte
+     * @return value of the digits, from 0 to 99999999
+     */
+    static int eightDigitsValue(long eight) {
+        long digits = eight - ZEROS;
+        long pairs = (digits * 10 + (digits >>> 8)) & 0x00FF00FF00FF00FFL;
+        long fours = (pairs * (1 + (100L << 16)) >>> 16) & 0x0000FFFF0000FFFFL;
+        return (int) ((fours * (1 + (10000L << 32))) >>> 32);
+    }
+
+    /**
+     * Finish scanning a value that was accumulated as a negative number.
+     *
+     * @param result negative of the value parsed
+     * @param negative <code>true</code> if there was a minus sign
+     * @param overflow <code>true</code> if the digits did not fit into a 32-bit integer
+     * @return the status and the integer parsed
+     */
+    private static long finish(int result, boolean negative, boolean overflow) {
+        if (overflow) {
+            return scanned(OVERFLOW, 0);
+        }
+        return scanned(OK, negative ? result : -result);
+    }
+
+    /**
+     * @param status ordinal of the status of the scan
+     * @param value integer parsed
+     * @return the status in the high 32 bits and the integer in the low 32 bits
+     */
+    private static long scanned(int status, int value) {
+        return (long) status << 32 | (value & 0xffffffffL);
+    }
+
+    /**
+     * @param scanned the status and integer from a scan
+     * @return the integer
+     * @throws NumberFormatException when there was a non-numeric character or nothing to parse
+     * @throws ArithmeticException when the value did not fit into a 32-bit integer
+     */
+    private static int toInteger(long scanned) {
+        int status = (int) (scanned >>> 32);
+        if (status == OVERFLOW) {
+            throw new ArithmeticException(TOO_LARGE);
+        } else if (status != OK) {
+            throw new NumberFormatException(NON_NUMERIC);
         }
+        return (int) scanned;
+    }
 
-        return result.intValue();
+    private static ParseStatus toResult(long scanned, ParseResult result) {
+        return result.set((int) (scanned >>> 32), (int) scanned);
     }
 }
@@ -0,0 +1,53 @@
+package com.takehome.numbers;
+
+/**
+ * Holds the outcome of parsing an integer without throwing an exception: the status and, when it is
+ * {@link ParseStatus#OK}, the integer. A single holder can be reused for every parse, so parsing allocates nothing
+ * whether or not the input is valid.
+ * <p>
+ * Instances are not thread safe, each thread parsing needs its own.
+ *
+ * @author jeff.snyder
+ */
+public final class ParseResult {
+
+    // Kept so the status can be looked up by its ordinal without copying the values each time
+    private static final ParseStatus[] STATUSES = ParseStatus.values();
+
+    private int value = 0;
+    private ParseStatus status = ParseStatus.EMPTY;
+
+    /**
+     * @return the integer parsed, only meaningful when the status is {@link ParseStatus#OK}
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * @return the outcome of the last parse
+     */
+    public ParseStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return <code>true</code> if the last parse found an integer
+     */
+    public boolean isOk() {
+        return status == ParseStatus.OK;
+    }
+
+    /**
+     * Set the outcome of a parse.
+     *
+     * @param status ordinal of the status
+     * @param value the integer parsed
+     * @return the status
+     */
+    ParseStatus set(int status, int value) {
+        this.status = STATUSES[status];
+        this.value = value;
+        return this.status;
+    }
+}
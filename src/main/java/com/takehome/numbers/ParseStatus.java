@@ -0,0 +1,35 @@
+package com.takehome.numbers;
+
+/**
+ * The outcome of parsing an integer without throwing an exception, see {@link ParseResult}.
+ *
+ * @author jeff.snyder
+ */
+public enum ParseStatus {
+
+    /** An integer was parsed. */
+    OK(null),
+
+    /** There was nothing but white space. */
+    EMPTY(ParseInteger.NON_NUMERIC),
+
+    /** There was a character that is not part of an integer. */
+    NON_NUMERIC(ParseInteger.NON_NUMERIC),
+
+    /** The integer is too big (either positive or negative) to fit in a 32-bit integer. */
+    OVERFLOW(ParseInteger.TOO_LARGE);
+
+    private final String message;
+
+    ParseStatus(String message) {
+        this.message = message;
+    }
+
+    /**
+     * @return the message of the exception the throwing parse methods report this status with, <code>null</code> when
+     * an integer was parsed
+     */
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,117 @@
+package com.takehome.numbers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts every integer in a range into its English language equivalent, one per line, for building lookup tables of
+ * consecutive numbers. Consecutive numbers share everything but their lowest three digits for a thousand numbers at a
+ * time, so the words for the higher groups of three digits (with and without the "and" that follows each scale when
+ * the lowest three digits are between 1 and 99) are built once each time they change, and only the words for the
+ * lowest three digits are added for each number.
+ * <p>
+ * The lines are written as ASCII bytes into a direct buffer, which is written to the channel whenever it is full.
+ *
+ * @author jeff.snyder
+ */
+public class RangeConverter {
+
+    // Size of the buffer of output written to the channel at a time
+    static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+    private final int bufferSize;
+
+    public RangeConverter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize number of bytes of output written to the channel at a time, at least enough for the longest
+     *                   line
+     */
+    public RangeConverter(int bufferSize) {
+        if (bufferSize < IntegerToEnglishWordConverter.MAX_LONG_LENGTH + LINE_SEPARATOR.length) {
+            throw new IllegalArgumentException("Buffer size " + bufferSize + " is too small for the longest line.");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Convert every number from the start to the end of the range, inclusive, writing the English language equivalent
+     * of each followed by a line separator to the channel.
+     *
+     * @param start first number of the range
+     * @param end last number of the range
+     * @param out channel the lines are written to (it is not closed)
+     * @throws IOException problem writing to the channel
+     * @throws IllegalArgumentException when the start of the range is after the end
+     */
+    public void convert(long start, long end, WritableByteChannel out) throws IOException {
+
+        if (start > end) {
+            throw new IllegalArgumentException("Start of the range " + start + " is after the end " + end + ".");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        int room = IntegerToEnglishWordConverter.MAX_LONG_LENGTH + LINE_SEPARATOR.length;
+
+        // Words for the higher groups of the current thousand numbers, without and with an "and" after each scale
+        ByteBuffer prefix = ByteBuffer.allocate(IntegerToEnglishWordConverter.MAX_LONG_LENGTH);
+        ByteBuffer prefixAnd = ByteBuffer.allocate(IntegerToEnglishWordConverter.MAX_LONG_LENGTH);
+        boolean noPrefix = true;
+        long high = 0;
+        boolean negative = false;
+        boolean started = false;
+
+        long n = start;
+        while (true) {
+            // The higher groups only change once every thousand numbers, or when the sign changes
+            if (!started || n / 1000 != high || n < 0 != negative) {
+                high = n / 1000;
+                negative = n < 0;
+                started = true;
+                prefix.clear();
+                prefixAnd.clear();
+                noPrefix = converter.putHighGroups(n, false, prefix) == 0;
+                converter.putHighGroups(n, true, prefixAnd);
+                prefix.flip();
+                prefixAnd.flip();
+            }
+
+            int lowest = (int) Math.abs(n % 1000);
+            if (n == 0) {
+                converter.encode(0, buffer);
+            } else {
+                ByteBuffer words = lowest < 100 && lowest != 0 ? prefixAnd : prefix;
+                buffer.put(words.array(), 0, words.limit());
+                converter.putLowestGroup(lowest, noPrefix, buffer);
+            }
+            buffer.put(LINE_SEPARATOR);
+
+            if (buffer.remaining() < room) {
+                write(buffer, out);
+            }
+
+            // Checked before incrementing, so a range ending at Long.MAX_VALUE does not overflow
+            if (n == end) {
+                break;
+            }
+            n++;
+        }
+
+        write(buffer, out);
+    }
+
+    private static void write(ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,130 @@
+package com.takehome.numbers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The English language equivalents of a batch of integers, held as ASCII bytes one after the other in a few large
+ * pages with the offset of each in a second array, instead of as a string for each integer. The words for the integer
+ * at index <code>i</code> of the batch are the bytes from <code>offsets[i]</code> up to <code>offsets[i + 1]</code>,
+ * counted as if the pages were one array, so a batch is not limited to the size of a single array. Every page is full
+ * apart from the last, and the words of an integer may carry on from the end of one page into the next.
+ *
+ * @author jeff.snyder
+ */
+public final class WordArena {
+
+    private final byte[][] pages;
+    private final int pageBits;
+    private final long[] offsets;
+
+    /**
+     * @param pages ASCII encoded words of every integer in the batch
+     * @param pageBits number of bits of an offset that index into a page, so every page but the last has
+     *                 2<sup>pageBits</sup> bytes
+     * @param offsets offset of the start of the words for each integer, followed by the end of the last
+     */
+    WordArena(byte[][] pages, int pageBits, long[] offsets) {
+        this.pages = pages;
+        this.pageBits = pageBits;
+        this.offsets = offsets;
+    }
+
+    /**
+     * @return number of integers in the batch
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return total number of bytes in the words of every integer in the batch
+     */
+    public long byteSize() {
+        return offsets[offsets.length - 1];
+    }
+
+    /**
+     * @return the pages of ASCII encoded words of every integer in the batch (the arrays themselves, not copies)
+     */
+    public byte[][] pages() {
+        return pages;
+    }
+
+    /**
+     * @return number of bytes in every page but the last
+     */
+    public int pageSize() {
+        return 1 << pageBits;
+    }
+
+    /**
+     * @return offset of the start of the words for each integer, with one more entry at the end for the end of the
+     * words of the last integer (the array itself, not a copy)
+     */
+    public long[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * @param index index of the integer in the batch
+     * @return offset of the start of the words for the integer, counted across every page
+     */
+    public long start(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @param index index of the integer in the batch
+     * @return number of bytes in the words for the integer
+     */
+    public int length(int index) {
+        return (int) (offsets[index + 1] - offsets[index]);
+    }
+
+    /**
+     * @param index index of the integer in the batch
+     * @return a new string of the words for the integer
+     */
+    public String get(int index) {
+        long start = offsets[index];
+        int length = length(index);
+        byte[] page = pages[page(start)];
+        int from = inPage(start);
+        if (from + length <= page.length) {
+            return new String(page, from, length, StandardCharsets.US_ASCII);
+        }
+
+        // The words carry on into the next page
+        byte[] bytes = new byte[length];
+        for (int i=0; i<length; i++) {
+            bytes[i] = byteAt(start + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Append the words for an integer to the buffer, without creating a string for them.
+     *
+     * @param index index of the integer in the batch
+     * @param out buffer the words are appended to
+     * @return the buffer that was passed in
+     */
+    public StringBuilder appendTo(int index, StringBuilder out) {
+        for (long i=offsets[index]; i<offsets[index + 1]; i++) {
+            out.append((char) byteAt(i));
+        }
+        return out;
+    }
+
+    private byte byteAt(long offset) {
+        return pages[page(offset)][inPage(offset)];
+    }
+
+    private int page(long offset) {
+        return (int) (offset >>> pageBits);
+    }
+
+    private int inPage(long offset) {
+        return (int) offset & (1 << pageBits) - 1;
+    }
+}
@@ -0,0 +1,187 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test converting a batch of files, each into an output file of its own.
+ *
+ * @author jeff.snyder
+ */
+class BatchConverterTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("numbers-batch");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void findFiles() throws IOException {
+        write("b.txt", "1\n");
+        write("a.txt", "1\n");
+        write("c.csv", "1\n");
+        write("a.txt" + BatchConverter.OUTPUT_SUFFIX, "One\n");
+        Files.createDirectory(directory.resolve("d.txt"));
+
+        assertEquals(Arrays.asList(directory.resolve("a.txt"), directory.resolve("b.txt"), directory.resolve("c.csv")),
+                BatchConverter.findFiles(directory.toString()));
+        assertEquals(Arrays.asList(directory.resolve("a.txt"), directory.resolve("b.txt")),
+                BatchConverter.findFiles(directory + "/*.txt"));
+        assertEquals(Collections.emptyList(), BatchConverter.findFiles(directory + "/*.none"));
+    }
+
+    @Test
+    void convertEachFile() throws IOException {
+        // Several files for each worker, so some wait to be reported
+        StringBuilder expected[] = new StringBuilder[10];
+        LineConverter converter = new LineConverter();
+        for (int f=0; f<expected.length; f++) {
+            StringBuilder data = new StringBuilder();
+            expected[f] = new StringBuilder();
+            for (int i=-2000; i<2000; i+=7) {
+                String line = (i % 11 == 0) ? i + "x" : String.valueOf(i * 1013 + f);
+                data.append(line).append('\n');
+                converter.convertLine(line, expected[f]).append(System.lineSeparator());
+            }
+            write("in" + f + ".txt", data.toString());
+        }
+
+        Path output = directory.resolve("out");
+        List<Path> files = BatchConverter.findFiles(directory.toString());
+        String report[] = convert(new BatchConverter(2, 256, null, OutputFormat.TEXT, null), files, output, 0);
+
+        for (int f=0; f<expected.length; f++) {
+            Path input = directory.resolve("in" + f + ".txt");
+            Path result = output.resolve("in" + f + ".txt" + BatchConverter.OUTPUT_SUFFIX);
+            assertEquals(expected[f].toString(), read(result));
+
+            // Reported in the order of the files
+            assertTrue(report[f].startsWith(input + " -> " + result + ": 572 lines in "), report[f]);
+        }
+        assertTrue(report[expected.length].startsWith("Batch: 10 files (0 failed), 5720 lines in "));
+    }
+
+    @Test
+    void convertLineEndingsAndLongLines() throws IOException {
+        StringBuilder zeros = new StringBuilder();
+        for (int i=0; i<LineConverter.MAX_LINE_LENGTH - 2; i++) {
+            zeros.append('0');
+        }
+        StringBuilder huge = new StringBuilder();
+        for (int i=0; i<100000; i++) {
+            huge.append('0');
+        }
+
+        // The longest lines held whole, with and without a carriage return, then lines too long to hold
+        write("in.txt", "1\r\n2\n\n" + zeros + "42\n" + zeros + "42\r\n0" + zeros + "42\n" + huge + "42\r\nx" + huge +
+                "\n3\n1" + huge + "\n" + huge + "7");
+
+        String expected = "One" + System.lineSeparator() +
+                "Two" + System.lineSeparator() +
+                "Error: Non-numeric character in input." + System.lineSeparator() +
+                "Forty two" + System.lineSeparator() +
+                "Forty two" + System.lineSeparator() +
+                "Forty two" + System.lineSeparator() +
+                "Forty two" + System.lineSeparator() +
+                "Error: Non-numeric character in input." + System.lineSeparator() +
+                "Three" + System.lineSeparator() +
+                "Error: Number can not be stored in a 32 bit integer." + System.lineSeparator() +
+                "Seven" + System.lineSeparator();
+
+        // The smallest buffers allowed, far smaller than the lines that are too long
+        List<Path> files = BatchConverter.findFiles(directory.toString());
+        String report[] = convert(new BatchConverter(1, 128, null, OutputFormat.TEXT, null), files, null, 0);
+        assertEquals(expected, read(directory.resolve("in.txt" + BatchConverter.OUTPUT_SUFFIX)));
+        assertTrue(report[0].contains(": 11 lines in "), report[0]);
+
+        // Only the first bytes of the lines too long to hold are echoed, with the length of the whole line
+        convert(new BatchConverter(1, OutputFormat.JSONL.maxLength(LineConverter.MAX_LINE_LENGTH), null,
+                OutputFormat.JSONL, null), files, null, 0);
+        String records[] = read(directory.resolve("in.txt" + BatchConverter.OUTPUT_SUFFIX)).split("\n");
+        assertEquals(11, records.length);
+        assertEquals("{\"input\":\"" + zeros + "42\",\"value\":42,\"words\":\"Forty two\"}", records[3]);
+        assertEquals("{\"input\":\"0" + zeros + "4\",\"inputLength\":126,\"value\":42,\"words\":\"Forty two\"}",
+                records[5]);
+        assertEquals("{\"input\":\"" + huge.substring(0, LineConverter.MAX_LINE_LENGTH) +
+                "\",\"inputLength\":100002,\"value\":42,\"words\":\"Forty two\"}", records[6]);
+        assertEquals("{\"input\":\"1" + huge.substring(0, LineConverter.MAX_LINE_LENGTH - 1) +
+                "\",\"inputLength\":100001,\"error\":\"OVERFLOW\"}", records[9]);
+    }
+
+    @Test
+    void convertCompressedFile() throws IOException {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(Files.newOutputStream(directory.resolve("in.txt.gz")))) {
+            gzip.write("45\n-7754\n".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        convert(new BatchConverter(1), BatchConverter.findFiles(directory.toString()), null, 0);
+        assertEquals("Forty five" + System.lineSeparator() +
+                "Negative seven thousand seven hundred and fifty four" + System.lineSeparator(),
+                read(directory.resolve("in.txt.gz" + BatchConverter.OUTPUT_SUFFIX)));
+    }
+
+    @Test
+    void carryOnAfterFailure() throws IOException {
+        write("a.txt", "1\n");
+        write("c.txt", "3\n");
+        List<Path> files = Arrays.asList(directory.resolve("a.txt"), directory.resolve("b.txt"),
+                directory.resolve("c.txt"));
+
+        String report[] = convert(new BatchConverter(2), files, null, 1);
+        assertTrue(report[1].startsWith("Error: Problem converting " + directory.resolve("b.txt") + ": "));
+        assertTrue(report[3].startsWith("Batch: 3 files (1 failed), 2 lines in "));
+        assertEquals("Three" + System.lineSeparator(), read(directory.resolve("c.txt" + BatchConverter.OUTPUT_SUFFIX)));
+    }
+
+    @Test
+    void bufferTooSmall() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchConverter(1, LineConverter.MAX_LINE_LENGTH + 1, null, OutputFormat.TEXT, null));
+        assertThrows(IllegalArgumentException.class, () -> new BatchConverter(1, 128, null, OutputFormat.JSONL, null));
+    }
+
+    private static String[] convert(BatchConverter converter, List<Path> files, Path output, int failures)
+            throws IOException {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        assertEquals(failures, converter.convert(files, output, new PrintStream(report)));
+        return report.toString().split(System.lineSeparator());
+    }
+
+    private void write(String name, String data) throws IOException {
+        Files.write(directory.resolve(name), data.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+    }
+}
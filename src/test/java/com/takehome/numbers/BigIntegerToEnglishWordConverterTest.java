@@ -0,0 +1,92 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test the conversion from integers of any size to words.
+ *
+ * @author jeff.snyder
+ */
+class BigIntegerToEnglishWordConverterTest {
+
+    @Test
+    void convertSameAsLong() {
+        long values[] = {0, 1, -1, 104, 1040, 2999099, -1373373373, Long.MIN_VALUE, Long.MAX_VALUE,
+                -7373373373373373073L, 1000000000000000099L};
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        BigIntegerToEnglishWordConverter big = new BigIntegerToEnglishWordConverter();
+        for (long value : values) {
+            assertEquals(convert.convert(value), big.convert(BigInteger.valueOf(value)));
+            assertEquals(convert.convert(value), big.convertDigits(String.valueOf(value)));
+        }
+    }
+
+    @Test
+    void convertFortyDigits() {
+        BigInteger value = new BigInteger("-1000000000000000000000000000000000000042");
+        String result = "Negative one duodecillion and forty two";
+
+        BigIntegerToEnglishWordConverter big = new BigIntegerToEnglishWordConverter();
+        assertEquals(result, big.convert(value));
+    }
+
+    @Test
+    void convertBeyondQuintillion() {
+        String digits[] = {"1000000000000000000000", "12000000000000000000000000",
+                "1" + String.join("", Collections.nCopies(21, "000"))};
+        String results[] = {"One sextillion", "Twelve septillion", "One vigintillion"};
+
+        BigIntegerToEnglishWordConverter big = new BigIntegerToEnglishWordConverter();
+        for (int i=0; i<digits.length; i++) {
+            assertEquals(results[i], big.convertDigits(digits[i]));
+        }
+    }
+
+    @Test
+    void convertDigitsLikeParse() {
+        BigIntegerToEnglishWordConverter big = new BigIntegerToEnglishWordConverter();
+        assertEquals("Zero", big.convertDigits("-0000"));
+        assertEquals("One hundred and one", big.convertDigits(" \t000101\n"));
+        assertThrows(NumberFormatException.class, ()-> big.convertDigits(""));
+        assertThrows(NumberFormatException.class, ()-> big.convertDigits("-"));
+        assertThrows(NumberFormatException.class, ()-> big.convertDigits("12x"));
+    }
+
+    @Test
+    void convertSliceIntoAppendable() throws IOException {
+        StringWriter out = new StringWriter();
+
+        BigIntegerToEnglishWordConverter big = new BigIntegerToEnglishWordConverter();
+        big.convertDigits("1234,56", 5, 7, out);
+        assertEquals("Fifty six", out.toString());
+    }
+
+    @Test
+    void convertCustomScale() {
+        BigIntegerToEnglishWordConverter big = new BigIntegerToEnglishWordConverter("thousand", "million");
+        assertEquals(9, big.maxDigits());
+        assertEquals("Two million and three", big.convertDigits("2000003"));
+        assertThrows(ArithmeticException.class, ()-> big.convertDigits("1000000000"));
+    }
+
+    @Test
+    void convertTooLargeWritesNothing() throws IOException {
+        StringWriter out = new StringWriter();
+        String digits = "1" + String.join("", Collections.nCopies(22, "000"));
+
+        BigIntegerToEnglishWordConverter big = new BigIntegerToEnglishWordConverter();
+        ArithmeticException e = assertThrows(ArithmeticException.class,
+                ()-> big.convertDigits(digits, 0, digits.length(), out));
+        assertEquals("Number is too large for the scale words available.", e.getMessage());
+        assertEquals("", out.toString());
+    }
+}
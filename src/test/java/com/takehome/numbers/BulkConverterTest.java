@@ -0,0 +1,112 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test converting batches of integers into a single arena, comparing each with the conversion of the integer on its
+ * own.
+ *
+ * @author jeff.snyder
+ */
+class BulkConverterTest {
+
+    @Test
+    void convertAll() {
+        int values[] = {0, -1, 104, 1040, 2999099, Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+        WordArena arena = new BulkConverter().convertAll(values);
+        assertEquals(values.length, arena.size());
+        assertEquals(0, arena.start(0));
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (int i=0; i<values.length; i++) {
+            assertEquals(convert.convert(values[i]), arena.get(i));
+            assertEquals(convert.convert(values[i]), arena.appendTo(i, new StringBuilder()).toString());
+        }
+        assertEquals(arena.byteSize(), arena.offsets()[values.length]);
+        assertEquals(1, arena.pages().length);
+        assertEquals(arena.byteSize(), arena.pages()[0].length);
+    }
+
+    @Test
+    void convertAllFromBuffer() {
+        IntBuffer values = IntBuffer.wrap(new int[]{1, 2, 3, 4, 5});
+        values.position(1).limit(4);
+
+        WordArena arena = new BulkConverter().convertAll(values);
+        assertEquals(3, arena.size());
+        assertEquals("Two", arena.get(0));
+        assertEquals("Four", arena.get(2));
+        assertEquals(1, values.position());
+    }
+
+    @Test
+    void convertAllEmpty() {
+        WordArena arena = new BulkConverter().convertAll(new int[0]);
+        assertEquals(0, arena.size());
+        assertEquals(0, arena.byteSize());
+        assertEquals(0, arena.pages().length);
+
+        assertEquals(0, new BulkConverter().convertAllParallel(new int[0]).size());
+    }
+
+    @Test
+    void convertAllParallelMatchesSequential() {
+        // Several segments, the last one partly full
+        int values[] = new int[BulkConverter.SEGMENT_SIZE * 5 + 123];
+        Random random = new Random(42);
+        for (int i=0; i<values.length; i++) {
+            values[i] = random.nextInt() >> random.nextInt(32);
+        }
+
+        BulkConverter bulk = new BulkConverter();
+        WordArena sequential = bulk.convertAll(values);
+        WordArena parallel = bulk.convertAllParallel(values, new ForkJoinPool(3));
+
+        assertArrayEquals(sequential.offsets(), parallel.offsets());
+        assertArrayEquals(sequential.pages(), parallel.pages());
+        assertEquals(new IntegerToEnglishWordConverter().convert(values[values.length - 1]),
+                parallel.get(values.length - 1));
+        assertEquals(Arrays.stream(values).mapToLong(v -> new IntegerToEnglishWordConverter().length(v)).sum(),
+                parallel.byteSize());
+    }
+
+    @Test
+    void convertAllAcrossPages() {
+        // Pages of 128 bytes, so many words carry on from one page into the next
+        int values[] = new int[BulkConverter.SEGMENT_SIZE * 2 + 45];
+        Random random = new Random(7);
+        for (int i=0; i<values.length; i++) {
+            values[i] = random.nextInt();
+        }
+
+        BulkConverter bulk = new BulkConverter(7);
+        WordArena sequential = bulk.convertAll(values);
+        WordArena parallel = bulk.convertAllParallel(values, new ForkJoinPool(3));
+        assertEquals(128, sequential.pageSize());
+        assertEquals((sequential.byteSize() + 127) / 128, sequential.pages().length);
+        assertArrayEquals(sequential.offsets(), parallel.offsets());
+        assertArrayEquals(sequential.pages(), parallel.pages());
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (int i=0; i<values.length; i++) {
+            assertEquals(convert.convert(values[i]), parallel.get(i));
+            assertEquals(convert.convert(values[i]), parallel.appendTo(i, new StringBuilder()).toString());
+        }
+    }
+
+    @Test
+    void invalidPageBits() {
+        assertThrows(IllegalArgumentException.class, ()-> new BulkConverter(6));
+        assertThrows(IllegalArgumentException.class, ()-> new BulkConverter(31));
+    }
+}
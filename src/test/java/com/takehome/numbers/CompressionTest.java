@@ -0,0 +1,153 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test recognizing gzip compressed input, and compressing output on a thread of its own.
+ *
+ * @author jeff.snyder
+ */
+class CompressionTest {
+
+    @Test
+    void decompressesGzip() throws IOException {
+        byte[] lines = "45\n-7754\n".getBytes(StandardCharsets.US_ASCII);
+        assertArrayEquals(lines, readAll(Compression.decompressIfGzip(new ByteArrayInputStream(gzip(lines)))));
+    }
+
+    @Test
+    void passesOtherInputThrough() throws IOException {
+        String inputs[] = {"45\n-7754\n", "", "4", "\u001f", "\u001fx\n"};
+        for (String input : inputs) {
+            byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+            assertArrayEquals(bytes, readAll(Compression.decompressIfGzip(new ByteArrayInputStream(bytes))), input);
+        }
+    }
+
+    @Test
+    void recognizesGzipFile() throws IOException {
+        Path plain = Files.createTempFile("numbers", ".txt");
+        Path compressed = Files.createTempFile("numbers", ".txt.gz");
+        try {
+            Files.write(plain, "45\n".getBytes(StandardCharsets.US_ASCII));
+            Files.write(compressed, gzip("45\n".getBytes(StandardCharsets.US_ASCII)));
+            assertFalse(Compression.isGzip(plain));
+            assertTrue(Compression.isGzip(compressed));
+        } finally {
+            Files.delete(plain);
+            Files.delete(compressed);
+        }
+    }
+
+    @Test
+    void compressesInBackground() throws IOException {
+        // Much more output than the blocks hold, written in pieces that do not line up with them
+        byte[] bytes = new byte[1 << 20];
+        Random random = new Random(24);
+        for (int i=0; i<bytes.length; i++) {
+            bytes[i] = (byte) ('0' + random.nextInt(10));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        BackgroundGzipOutputStream gzip = new BackgroundGzipOutputStream(out, 1000, 2);
+        int written = 0;
+        while (written < bytes.length) {
+            int count = Math.min(random.nextInt(3000), bytes.length - written);
+            gzip.write(bytes, written, count);
+            gzip.write('\n');
+            expected.write(bytes, written, count);
+            expected.write('\n');
+            written += count;
+        }
+        gzip.close();
+        gzip.close();
+
+        assertArrayEquals(expected.toByteArray(),
+                readAll(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))));
+        assertThrows(IOException.class, () -> gzip.write(1));
+    }
+
+    @Test
+    void flushWritesWhatIsWritten() throws IOException, InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BackgroundGzipOutputStream gzip = new BackgroundGzipOutputStream(out);
+        gzip.write("Forty five\n".getBytes(StandardCharsets.US_ASCII));
+        gzip.flush();
+
+        // The flush is done by the compressing thread, so wait for the output to arrive
+        for (int i=0; i<500 && out.size() < 20; i++) {
+            Thread.sleep(10);
+        }
+        GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()));
+        byte[] line = new byte[11];
+        int read = 0;
+        while (read < line.length) {
+            read += in.read(line, read, line.length - read);
+        }
+        assertEquals("Forty five\n", new String(line, StandardCharsets.US_ASCII));
+        gzip.close();
+    }
+
+    @Test
+    void reportsFailure() throws IOException {
+        OutputStream broken = new OutputStream() {
+            private int count = 0;
+
+            @Override
+            public void write(int b) throws IOException {
+                // Allows the header to be written
+                if (++count > 10) {
+                    throw new IOException("Broken");
+                }
+            }
+        };
+
+        BackgroundGzipOutputStream gzip = new BackgroundGzipOutputStream(broken, 100, 2);
+        byte[] bytes = new byte[100];
+        new Random(5).nextBytes(bytes);
+        IOException e = assertThrows(IOException.class, () -> {
+            for (int i=0; i<10000; i++) {
+                gzip.write(bytes);
+            }
+            gzip.close();
+        });
+        assertEquals("Problem compressing the output.", e.getMessage());
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,211 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the cache of the words for integers, its CLOCK eviction and sharing it between threads.
+ *
+ * @author jeff.snyder
+ */
+class ConversionCacheTest {
+
+    private final IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+
+    @Test
+    void hitsAndMisses() {
+        ConversionCache cache = new ConversionCache(converter, 16);
+
+        assertEquals("Forty five", cache.convert(45, new StringBuilder()).toString());
+        assertEquals("Forty five", cache.convert(45, new StringBuilder()).toString());
+        ByteBuffer buffer = ByteBuffer.allocate(IntegerToEnglishWordConverter.MAX_LENGTH);
+        assertEquals(10, cache.encode(45, buffer));
+        assertEquals("Forty five", new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(2.0 / 3, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void sameOutputAsConverter() {
+        // A small cache, so numbers are evicted while converting
+        ConversionCache cache = new ConversionCache(converter, 64);
+        Random random = new Random(7370);
+        ByteBuffer expected = ByteBuffer.allocate(IntegerToEnglishWordConverter.MAX_LENGTH);
+        ByteBuffer actual = ByteBuffer.allocate(IntegerToEnglishWordConverter.MAX_LENGTH);
+
+        for (int i=0; i<20000; i++) {
+            int n = i % 3 == 0 ? random.nextInt() : random.nextInt(200) - 100;
+            if (i == 1) {
+                n = Integer.MIN_VALUE;
+            }
+
+            assertEquals(converter.convert(n), cache.convert(n, new StringBuilder()).toString());
+
+            expected.clear();
+            actual.clear();
+            converter.encode(n, expected);
+            cache.encode(n, actual);
+            expected.flip();
+            actual.flip();
+            assertEquals(expected, actual);
+        }
+        assertTrue(cache.getHits() > 0);
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    void wordsNotAscii() {
+        IntegerToWordConverter french = new IntegerToWordConverter(FrenchLanguagePack.FRENCH);
+        ConversionCache cache = new ConversionCache(french, 16);
+
+        assertEquals("Z\u00e9ro", cache.convert(0, new StringBuilder()).toString());
+        assertEquals("Z\u00e9ro", cache.convert(0, new StringBuilder()).toString());
+
+        ByteBuffer buffer = ByteBuffer.allocate(french.maxLength());
+        cache.encode(0, buffer);
+        assertEquals("Z\u00e9ro", new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void evictsUnreferenced() {
+        // The whole table is a single window of slots
+        ConversionCache cache = new ConversionCache(converter, ConversionCache.PROBES);
+        for (int n=0; n<ConversionCache.PROBES; n++) {
+            cache.convert(n, new StringBuilder());
+        }
+        for (int n=0; n<ConversionCache.PROBES - 1; n++) {
+            cache.convert(n, new StringBuilder());
+        }
+        assertEquals(ConversionCache.PROBES - 1, cache.getHits());
+        assertEquals(0, cache.getEvictions());
+
+        // Only the last number has not been hit, so it is the one evicted
+        cache.convert(100, new StringBuilder());
+        assertEquals(1, cache.getEvictions());
+        for (int n=0; n<ConversionCache.PROBES - 1; n++) {
+            cache.convert(n, new StringBuilder());
+        }
+        assertEquals((ConversionCache.PROBES - 1) * 2, cache.getHits());
+
+        long misses = cache.getMisses();
+        cache.convert(ConversionCache.PROBES - 1, new StringBuilder());
+        assertEquals(misses + 1, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    void bufferTooSmall() {
+        ConversionCache cache = new ConversionCache(converter, 16);
+        ByteBuffer buffer = ByteBuffer.allocate(5);
+
+        // Both from the converter and from the cache
+        assertThrows(BufferOverflowException.class, () -> cache.encode(45, buffer));
+        cache.convert(45, new StringBuilder());
+        assertThrows(BufferOverflowException.class, () -> cache.encode(45, buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void capacity() {
+        assertEquals(128, new ConversionCache(converter, 100).getCapacity());
+        assertEquals(1, new ConversionCache(converter, 1).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new ConversionCache(converter, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConversionCache(converter, ConversionCache.MAX_CAPACITY + 1));
+    }
+
+    @Test
+    void sharedByThreads() throws InterruptedException, ExecutionException {
+        ConversionCache cache = new ConversionCache(converter, 256);
+        int threads = 4;
+        int conversions = 50000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t=0; t<threads; t++) {
+                int seed = t;
+                Callable<Integer> task = () -> {
+                    Random random = new Random(seed);
+                    ByteBuffer buffer = ByteBuffer.allocate(IntegerToEnglishWordConverter.MAX_LENGTH);
+                    int wrong = 0;
+                    for (int i=0; i<conversions; i++) {
+                        int n = random.nextInt(1000);
+                        buffer.clear();
+                        cache.encode(n, buffer);
+                        if (!converter.convert(n).equals(
+                                new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII))) {
+                            wrong++;
+                        }
+                    }
+                    return wrong;
+                };
+                results.add(executor.submit(task));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get().intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals((long) threads * conversions, cache.getHits() + cache.getMisses());
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    void publishedOverJmx() throws JMException {
+        ConversionCache cache = new ConversionCache(converter, 16);
+        new LineConverter(null, OutputFormat.TEXT, cache).convertLine("15", new StringBuilder());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ConversionCache.OBJECT_NAME);
+        cache.register();
+        try {
+            assertEquals(0L, server.getAttribute(name, "Hits"));
+            assertEquals(1L, server.getAttribute(name, "Misses"));
+            assertEquals(16, server.getAttribute(name, "Capacity"));
+        } finally {
+            cache.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    void summary() {
+        ConversionCache cache = new ConversionCache(converter, 16);
+        cache.convert(1, new StringBuilder());
+        cache.convert(1, new StringBuilder());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.printSummary(new PrintStream(out));
+
+        assertTrue(out.toString().startsWith("Cache: capacity 16, 1 hits, 1 misses, 0 evictions ("));
+    }
+}
@@ -0,0 +1,124 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the counters and histograms kept as lines are converted, and publishing them over JMX.
+ *
+ * @author jeff.snyder
+ */
+class ConversionMetricsTest {
+
+    @Test
+    void countsLines() {
+        ConversionMetrics metrics = new ConversionMetrics();
+        LineConverter converter = new LineConverter(metrics);
+        StringBuilder out = new StringBuilder();
+
+        String lines[] = {"45", "-7754", "12a", "", "   ", "3000000000", null};
+        for (String line : lines) {
+            converter.convertLine(line, out);
+        }
+
+        byte[] bytes = "5367 x 99999999999".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate(LineConverter.MAX_LENGTH * 3);
+        converter.convertLine(bytes, 0, 4, buffer);
+        converter.convertLine(bytes, 5, 6, buffer);
+        converter.convertLine(bytes, 7, bytes.length, buffer);
+
+        assertEquals(10, metrics.getLinesRead());
+        assertEquals(3, metrics.getConversions());
+        assertEquals(2, metrics.getNonNumericErrors());
+        assertEquals(2, metrics.getOverflowErrors());
+        assertEquals(3, metrics.getEmptyLines());
+        assertTrue(metrics.getParseNanos() >= 0);
+        assertTrue(metrics.getConvertNanosP99() >= metrics.getMeanConvertNanos() / 2);
+
+        metrics.reset();
+        assertEquals(0, metrics.getLinesRead());
+        assertEquals(0, metrics.getConversions());
+        assertEquals(0, metrics.getMeanParseNanos());
+        assertEquals(0, metrics.getParseNanosP99());
+    }
+
+    @Test
+    void outputUnchanged() {
+        LineConverter plain = new LineConverter();
+        LineConverter measured = new LineConverter(new ConversionMetrics());
+
+        String lines[] = {"0", "-2147483648", "2147483648", "1,000", "  1023434  ", ""};
+        for (String line : lines) {
+            assertEquals(plain.convertLine(line, new StringBuilder()).toString(),
+                    measured.convertLine(line, new StringBuilder()).toString());
+        }
+    }
+
+    @Test
+    void histogramBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i=0; i<98; i++) {
+            histogram.record(100);
+        }
+        histogram.record(1000);
+        histogram.record(1000000);
+
+        assertEquals(100, histogram.count());
+        assertEquals(98 * 100 + 1000 + 1000000, histogram.totalNanos());
+        assertEquals(127, histogram.percentileNanos(50));
+        assertEquals(1023, histogram.percentileNanos(99));
+        assertEquals((1 << 20) - 1, histogram.percentileNanos(100));
+
+        histogram.record(0);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(1, histogram.counts()[0]);
+        assertEquals(1, histogram.counts()[LatencyHistogram.BUCKETS - 1]);
+    }
+
+    @Test
+    void publishedOverJmx() throws JMException {
+        ConversionMetrics metrics = new ConversionMetrics();
+        new LineConverter(metrics).convertLine("15", new StringBuilder());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ConversionMetrics.OBJECT_NAME);
+        metrics.register();
+        try {
+            assertEquals(1L, server.getAttribute(name, "LinesRead"));
+            assertEquals(1L, server.getAttribute(name, "Conversions"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    void summary() {
+        ConversionMetrics metrics = new ConversionMetrics();
+        LineConverter converter = new LineConverter(metrics);
+        converter.convertLine("101", new StringBuilder());
+        converter.convertLine("ten", new StringBuilder());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        metrics.printSummary(new PrintStream(out));
+
+        String lines[] = out.toString().split(System.lineSeparator());
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("Conversions: 2 lines read, 1 converted ("));
+        assertTrue(lines[0].endsWith("errors: 1 non-numeric, 0 overflow, 0 empty"));
+        assertTrue(lines[1].startsWith("  parse:   mean "));
+        assertTrue(lines[2].startsWith("  convert: mean "));
+    }
+}
@@ -0,0 +1,147 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test converting a stream through the reader, worker and writer stages.
+ *
+ * @author jeff.snyder
+ */
+class ConversionPipelineTest {
+
+    @Test
+    void convertInOrderAroundTheRing() throws IOException {
+        StringBuilder data = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        LineConverter converter = new LineConverter();
+        for (int i=-20000; i<20000; i+=7) {
+            String line = (i % 11 == 0) ? i + "x" : String.valueOf(i * 3571);
+            data.append(line).append('\n');
+            converter.convertLine(line, expected).append(System.lineSeparator());
+        }
+
+        // Small slots so the ring wraps around many times, read in small pieces so lines are split between reads
+        ConversionPipeline pipeline = new ConversionPipeline(3, 32);
+        assertEquals(expected.toString(), convert(pipeline, new TrickleInputStream(data.toString(), 13)));
+    }
+
+    @Test
+    void convertLineEndings() throws IOException {
+        String expected = "One" + System.lineSeparator() +
+                "Error: Non-numeric character in input." + System.lineSeparator() +
+                "Two" + System.lineSeparator();
+
+        // Windows line endings, an empty line and no line separator at the end, with the smallest slots
+        ConversionPipeline pipeline = new ConversionPipeline(2, 4);
+        assertEquals(expected, convert(pipeline, new TrickleInputStream("1\r\n\n00000000000002", 3)));
+    }
+
+    @Test
+    void convertLongLines() throws IOException {
+        StringBuilder zeros = new StringBuilder();
+        for (int i=0; i<1000; i++) {
+            zeros.append('0');
+        }
+        String spaces = zeros.toString().replace('0', ' ');
+        String data = zeros + "42\r\n1" + zeros + "\nx" + zeros + "\n" + spaces + "7\n3\n" + zeros + "5";
+
+        String expected = "Forty two" + System.lineSeparator() +
+                "Error: Number can not be stored in a 32 bit integer." + System.lineSeparator() +
+                "Error: Non-numeric character in input." + System.lineSeparator() +
+                "Seven" + System.lineSeparator() +
+                "Three" + System.lineSeparator() +
+                "Five" + System.lineSeparator();
+
+        // Lines far longer than a slot, whether read a few bytes at a time or all at once
+        assertEquals(expected, convert(new ConversionPipeline(2, 32), new TrickleInputStream(data, 13)));
+        assertEquals(expected, convert(new ConversionPipeline(2), new TrickleInputStream(data, data.length())));
+
+        // Only the first bytes are echoed, with the length of the whole line
+        String records = convert(new ConversionPipeline(2, 32, null, OutputFormat.JSONL),
+                new TrickleInputStream(data, 13));
+        assertTrue(records.startsWith("{\"input\":\"" + zeros.substring(0, LineConverter.MAX_LINE_LENGTH) +
+                "\",\"inputLength\":1002,\"value\":42,\"words\":\"Forty two\"}\n"), records);
+    }
+
+    @Test
+    void convertEmptyInput() throws IOException {
+        assertEquals("", convert(new ConversionPipeline(2), new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void readFailure() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Broken");
+            }
+        };
+
+        ConversionPipeline pipeline = new ConversionPipeline(2);
+        IOException e = assertThrows(IOException.class, ()-> pipeline.convert(failing, new ByteArrayOutputStream()));
+        assertEquals("Broken", e.getMessage());
+    }
+
+    @Test
+    void writeFailure() {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken");
+            }
+        };
+
+        ConversionPipeline pipeline = new ConversionPipeline(2, 16);
+        InputStream input = new ByteArrayInputStream("1\n2\n3\n4\n5\n6\n7\n8\n9\n".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IOException.class, ()-> pipeline.convert(input, failing));
+    }
+
+    @Test
+    void printStats() throws IOException {
+        ConversionPipeline pipeline = new ConversionPipeline(2);
+        convert(pipeline, new ByteArrayInputStream("1\n2\n3\n".getBytes(StandardCharsets.US_ASCII)));
+
+        ByteArrayOutputStream stats = new ByteArrayOutputStream();
+        pipeline.printStats(new PrintStream(stats));
+        String printed = stats.toString();
+        assertTrue(printed.startsWith("Pipeline: 1 reader, 2 workers, 1 writer, 8 slots"));
+        assertTrue(printed.contains("workers: 3 lines"));
+        assertTrue(printed.contains("writer:  3 lines"));
+    }
+
+    private String convert(ConversionPipeline pipeline, InputStream input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pipeline.convert(input, out);
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Input that only gives out a few bytes for each read, like a slow pipe.
+     */
+    private static class TrickleInputStream extends ByteArrayInputStream {
+
+        private final int most;
+
+        TrickleInputStream(String data, int most) {
+            super(data.getBytes(StandardCharsets.US_ASCII));
+            this.most = most;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, most));
+        }
+    }
+}
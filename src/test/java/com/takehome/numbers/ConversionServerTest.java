@@ -0,0 +1,159 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test converting lines sent to the server, using the client.
+ *
+ * @author jeff.snyder
+ */
+class ConversionServerTest {
+
+    private ConversionServer server;
+    private Thread serving;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new ConversionServer(0);
+        serving = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        serving.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException, InterruptedException {
+        server.close();
+        serving.join();
+    }
+
+    @Test
+    void convertPipelinedLines() throws IOException {
+        StringBuilder data = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        LineConverter converter = new LineConverter();
+        for (int i=-200000; i<200000; i+=3) {
+            String line = (i % 11 == 0) ? i + "x" : String.valueOf(i * 3571);
+            data.append(line).append('\n');
+            converter.convertLine(line, expected).append(System.lineSeparator());
+        }
+
+        // Far more output than the server buffers, so it has to wait for the client to read it
+        assertEquals(expected.toString(), convert(data.toString()));
+    }
+
+    @Test
+    void convertLineEndings() throws IOException {
+        String expected = "One" + System.lineSeparator() +
+                "Error: Non-numeric character in input." + System.lineSeparator() +
+                "Two" + System.lineSeparator();
+
+        // Windows line endings, an empty line and no line separator at the end
+        assertEquals(expected, convert("1\r\n\n00000000000002"));
+    }
+
+    @Test
+    void convertLineLongerThanBuffer() throws IOException {
+        StringBuilder zeros = new StringBuilder();
+        for (int i=0; i<ConversionServer.BUFFER_SIZE * 3; i++) {
+            zeros.append('0');
+        }
+
+        assertEquals("Forty two" + System.lineSeparator() + "One" + System.lineSeparator(),
+                convert(zeros + "42\n1\n"));
+
+        String spaces = zeros.toString().replace('0', ' ');
+        assertEquals("Seven" + System.lineSeparator() +
+                "Error: Non-numeric character in input." + System.lineSeparator() +
+                "Error: Non-numeric character in input." + System.lineSeparator() +
+                "Error: Number can not be stored in a 32 bit integer." + System.lineSeparator() +
+                "Negative two" + System.lineSeparator(),
+                convert(spaces + "7\r\n" + spaces + "\n1" + zeros + "x\n1" + zeros + "\n-" + zeros + "2"));
+    }
+
+    @Test
+    void convertLongestLine() throws IOException {
+        StringBuilder zeros = new StringBuilder();
+        for (int i=0; i<LineConverter.MAX_LINE_LENGTH - 2; i++) {
+            zeros.append('0');
+        }
+
+        assertEquals("Forty two" + System.lineSeparator() +
+                "Forty two" + System.lineSeparator() +
+                "Forty two" + System.lineSeparator() +
+                "Forty two" + System.lineSeparator(),
+                convert(zeros + "42\n" + zeros + "42\r\n0" + zeros + "42\n0" + zeros + "42"));
+    }
+
+    @Test
+    void convertEmptyInput() throws IOException {
+        assertEquals("", convert(""));
+    }
+
+    @Test
+    void convertConcurrentConnections() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i=0; i<8; i++) {
+                String line = String.valueOf(i * 1000001);
+                results.add(clients.submit(() -> convert(line)));
+            }
+
+            IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+            for (int i=0; i<8; i++) {
+                assertEquals(converter.convert(i * 1000001) + System.lineSeparator(), results.get(i).get());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void clientGoingAwayLeavesServerRunning() throws IOException {
+        try (SocketChannel channel = SocketChannel.open(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()))) {
+            channel.write(ByteBuffer.wrap("1\n2\n".getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        assertEquals("Three" + System.lineSeparator(), convert("3"));
+    }
+
+    @Test
+    void noServer() throws IOException {
+        server.close();
+        ConversionClient client = new ConversionClient(server.getPort());
+        assertThrows(IOException.class, ()-> client.convert(new ByteArrayInputStream(new byte[0]),
+                new ByteArrayOutputStream()));
+    }
+
+    private String convert(String data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ConversionClient(server.getPort()).convert(
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.US_ASCII)), out);
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,83 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test the parsing of English words back into integers, checking for invalid input.
+ *
+ * @author jeff.snyder
+ */
+class EnglishWordToIntegerParserTest {
+
+    private static EnglishWordToIntegerParser parse;
+
+    @BeforeAll
+    static void setup() {
+        parse = new EnglishWordToIntegerParser();
+    }
+
+    @Test
+    void parseConverterOutput() {
+        int values[] = {0, 1, -1, 13, 40, 99, 100, 104, 140, 1000, 1040, 1000001, 1000100, 101000, 100001, 2999099,
+                -7754, -1373373373, Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (int value : values) {
+            assertEquals(value, parse.parseIntegerFromWords(convert.convert(value)));
+        }
+    }
+
+    @Test
+    void parseCaseAndWhiteSpace() {
+        assertEquals(-7754, parse.parseIntegerFromWords("Negative seven thousand seven hundred and fifty four"));
+        assertEquals(-7754, parse.parseIntegerFromWords("  NEGATIVE seven\tthousand Seven hundred and  fifty four\n"));
+        assertEquals(2999099, parse.parseIntegerFromWords("two million nine hundred ninety nine thousand and ninety nine"));
+    }
+
+    @Test
+    void parseSlice() {
+        String line = "12,Forty two,x";
+        assertEquals(42, parse.parseIntegerFromWords(line, 3, 12));
+    }
+
+    @Test
+    void parseUnknownWords() {
+        assertThrows(NumberFormatException.class, ()-> parse.parseIntegerFromWords("seve"));
+        assertThrows(NumberFormatException.class, ()-> parse.parseIntegerFromWords("one hundred fourty"));
+        assertThrows(NumberFormatException.class, ()-> parse.parseIntegerFromWords("forty-two"));
+        assertThrows(NumberFormatException.class, ()-> parse.parseIntegerFromWords("42"));
+    }
+
+    @Test
+    void parseOutOfOrderWords() {
+        String inputs[] = {"", "negative", "thousand", "One thousand two million", "one million one million",
+                "eleven hundred", "twenty twenty", "four twenty", "negative zero", "zero zero", "one negative"};
+        for (String input : inputs) {
+            NumberFormatException e = assertThrows(NumberFormatException.class,
+                    ()-> parse.parseIntegerFromWords(input));
+            assertEquals("Words are not in a valid order for a number.", e.getMessage());
+        }
+    }
+
+    @Test
+    void parseMisplacedAnd() {
+        String inputs[] = {"and one", "one and", "one hundred and", "one and twenty", "one thousand and and one",
+                "one thousand and two hundred", "one thousand and", "one hundred and twenty thousand"};
+        for (String input : inputs) {
+            assertThrows(NumberFormatException.class, ()-> parse.parseIntegerFromWords(input));
+        }
+    }
+
+    @Test
+    void parseTooLarge() {
+        ArithmeticException e = assertThrows(ArithmeticException.class, ()-> parse.parseIntegerFromWords(
+                "Two billion one hundred forty seven million four hundred eighty three thousand six hundred and forty eight"));
+        assertEquals("Number can not be stored in a 32 bit integer.", e.getMessage());
+        assertThrows(ArithmeticException.class, ()-> parse.parseIntegerFromWords("one trillion"));
+        assertThrows(NumberFormatException.class, ()-> parse.parseIntegerFromWords("one trillion x"));
+    }
+}
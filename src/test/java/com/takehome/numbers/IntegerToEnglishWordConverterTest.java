@@ -2,7 +2,23 @@ package com.takehome.numbers;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test the conversion from integer to words.
@@ -149,4 +165,256 @@ class IntegerToEnglishWordConverterTest {
         IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
         assertEquals(result, convert.convert(value));
     }
-}
\ No newline at end of file
+
+    @Test
+    void convertChunkForms() {
+        int values[] = {999, 999000, 999999, 500, 500500, 17017};
+        String results[] = {
+                "Nine hundred and ninety nine",
+                "Nine hundred ninety nine thousand",
+                "Nine hundred ninety nine thousand nine hundred and ninety nine",
+                "Five hundred",
+                "Five hundred thousand five hundred",
+                "Seventeen thousand and seventeen"
+        };
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (int i=0; i<values.length; i++) {
+            assertEquals(results[i], convert.convert(values[i]));
+        }
+    }
+
+    @Test
+    void convertIntoStringBuilder() {
+        StringBuilder out = new StringBuilder("Result: ");
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        convert.convert(-1040, out);
+        assertEquals("Result: Negative one thousand and forty", out.toString());
+    }
+
+    @Test
+    void convertIntoAppendable() throws IOException {
+        StringWriter out = new StringWriter();
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        convert.convert(104, (Appendable) out);
+        out.append('|');
+        convert.convert(0, (Appendable) out);
+        assertEquals("One hundred and four|Zero", out.toString());
+    }
+
+    @Test
+    void convertAndPlacement() {
+        int values[] = {1040, 1000001, 1000100, 101000, 100001, 2999099};
+        String results[] = {
+                "One thousand and forty",
+                "One million and one",
+                "One million one hundred",
+                "One hundred one thousand",
+                "One hundred thousand and one",
+                "Two million and nine hundred ninety nine thousand and ninety nine"
+        };
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (int i=0; i<values.length; i++) {
+            assertEquals(results[i], convert.convert(values[i]));
+        }
+    }
+
+    @Test
+    void encodeIntoHeapAndDirectBuffers() {
+        int values[] = {0, -1040, 2999099, Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256)}) {
+            for (int value : values) {
+                buffer.clear();
+                int written = convert.encode(value, buffer);
+                buffer.flip();
+
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                assertEquals(written, bytes.length);
+                assertEquals(convert.convert(value), new String(bytes, StandardCharsets.US_ASCII));
+            }
+        }
+    }
+
+    @Test
+    void encodeIntoArrayAtOffset() {
+        byte[] bytes = new byte[IntegerToEnglishWordConverter.MAX_LENGTH + 4];
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        int written = convert.encode(-1373373373, bytes, 4);
+        assertEquals(IntegerToEnglishWordConverter.MAX_LENGTH, written);
+        assertEquals(convert.convert(-1373373373), new String(bytes, 4, written, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void encodeIntoArrayTooSmall() {
+        byte[] bytes = new byte[20];
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        assertThrows(BufferOverflowException.class, ()-> convert.encode(Integer.MAX_VALUE, bytes, 0));
+        assertThrows(BufferOverflowException.class, ()-> convert.encode(1, bytes, 20));
+        assertThrows(IndexOutOfBoundsException.class, ()-> convert.encode(1, bytes, 21));
+        assertThrows(IndexOutOfBoundsException.class, ()-> convert.encode(1, bytes, -1));
+        assertEquals(3, convert.encode(1, bytes, 17));
+    }
+
+    @Test
+    void encodeOverflowLeavesPosition() {
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+        buffer.put((byte) '-');
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        assertThrows(BufferOverflowException.class, ()-> convert.encode(Integer.MAX_VALUE, buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    void convertMinMaxLong() {
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        assertEquals("Negative nine quintillion two hundred twenty three quadrillion three hundred seventy two trillion "
+                + "thirty six billion eight hundred fifty four million seven hundred seventy five thousand eight "
+                + "hundred and eight", convert.convert(Long.MIN_VALUE));
+        assertEquals("Nine quintillion two hundred twenty three quadrillion three hundred seventy two trillion "
+                + "thirty six billion eight hundred fifty four million seven hundred seventy five thousand eight "
+                + "hundred and seven", convert.convert(Long.MAX_VALUE));
+    }
+
+    @Test
+    void convertLongScales() {
+        long values[] = {0L, 1000000000000L, 1000000000000000L, 1000000000000000000L, -5000000000001L,
+                1000000000000000099L};
+        String results[] = {
+                "Zero",
+                "One trillion",
+                "One quadrillion",
+                "One quintillion",
+                "Negative five trillion and one",
+                "One quintillion and ninety nine"
+        };
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (int i=0; i<values.length; i++) {
+            assertEquals(results[i], convert.convert(values[i]));
+        }
+    }
+
+    @Test
+    void convertLongSameAsInt() {
+        int values[] = {0, 1, -1, 104, 1040, 2999099, -1373373373, Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (int value : values) {
+            assertEquals(convert.convert(value), convert.convert((long) value));
+        }
+    }
+
+    @Test
+    void encodeLongIntoBuffer() {
+        long longest = -7373373373373373073L;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IntegerToEnglishWordConverter.MAX_LONG_LENGTH);
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        int written = convert.encode(longest, buffer);
+        assertEquals(IntegerToEnglishWordConverter.MAX_LONG_LENGTH, written);
+        assertEquals(IntegerToEnglishWordConverter.MAX_LONG_LENGTH, convert.convert(longest).length());
+
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertEquals(convert.convert(longest), new String(bytes, StandardCharsets.US_ASCII));
+
+        buffer.clear().position(1);
+        assertThrows(BufferOverflowException.class, ()-> convert.encode(longest, buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    void lengthMatchesConvert() {
+        int values[] = {0, 1, -1, 13, 100, 104, 1040, 1000001, 2999099, -1373373373, Integer.MIN_VALUE,
+                Integer.MAX_VALUE};
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (int value : values) {
+            assertEquals(convert.convert(value).length(), convert.length(value));
+        }
+        for (int value=-100000; value<=100000; value++) {
+            assertEquals(convert.convert(value).length(), convert.length(value));
+        }
+        assertEquals(IntegerToEnglishWordConverter.MAX_LENGTH, convert.length(-1373373373));
+    }
+
+    @Test
+    void lengthOfLongMatchesConvert() {
+        long values[] = {0L, -5000000000001L, 1000000000000000099L, Long.MIN_VALUE, Long.MAX_VALUE};
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        for (long value : values) {
+            assertEquals(convert.convert(value).length(), convert.length(value));
+        }
+        assertEquals(IntegerToEnglishWordConverter.MAX_LONG_LENGTH, convert.length(-7373373373373373073L));
+    }
+
+    @Test
+    void lengthOfBatch() {
+        int values[] = {0, -1040, 2999099, Integer.MIN_VALUE};
+
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        long total = 0;
+        for (int value : values) {
+            total += convert.convert(value).length();
+        }
+        assertEquals(total, convert.length(values));
+        assertEquals(0, convert.length(new int[0]));
+    }
+
+    @Test
+    void wordsOfStream() {
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        List<String> words = convert.words(IntStream.of(45, -7754, 0)).collect(Collectors.toList());
+        assertEquals(Arrays.asList("Forty five", "Negative seven thousand seven hundred and fifty four", "Zero"), words);
+    }
+
+    @Test
+    void wordsOfParallelStream() {
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        int start = Integer.MAX_VALUE - 100000;
+
+        String[] expected = new String[100001];
+        for (int i=0; i<expected.length; i++) {
+            expected[i] = convert.convert(start + i);
+        }
+        String[] actual = convert.words(IntStream.rangeClosed(start, Integer.MAX_VALUE).parallel()).toArray(String[]::new);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void wordsAreLazy() {
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        AtomicInteger taken = new AtomicInteger();
+
+        Stream<String> words = convert.words(IntStream.iterate(1, n -> n + 1).peek(n -> taken.incrementAndGet()));
+        assertEquals(0, taken.get());
+        assertEquals(Arrays.asList("One", "Two", "Three"), words.limit(3).collect(Collectors.toList()));
+        assertEquals(3, taken.get());
+    }
+
+    @Test
+    void wordsSplitEvenly() {
+        IntegerToEnglishWordConverter convert = new IntegerToEnglishWordConverter();
+        Spliterator<String> words = convert.words(IntStream.range(0, 1000)).spliterator();
+
+        assertTrue(words.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(1000, words.getExactSizeIfKnown());
+
+        Spliterator<String> prefix = words.trySplit();
+        assertEquals(500, prefix.estimateSize());
+        assertEquals(500, words.estimateSize());
+        assertTrue(prefix.tryAdvance(w -> assertEquals("Zero", w)));
+        assertTrue(words.tryAdvance(w -> assertEquals("Five hundred", w)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test converting integers into words with each of the language packs.
+ *
+ * @author jeff.snyder
+ */
+class IntegerToWordConverterTest {
+
+    private static final long VALUES[] = {0, -5, 101, 1005, 1105, 1002005, -1000001, 200080000};
+
+    @Test
+    void convertStandardEnglish() {
+        String results[] = {
+                "Zero", "Negative five", "One hundred and one", "One thousand and five",
+                "One thousand one hundred and five", "One million and two thousand and five",
+                "Negative one million and one", "Two hundred million eighty thousand"
+        };
+
+        compare(EnglishLanguagePack.STANDARD, results);
+    }
+
+    @Test
+    void convertBritishEnglish() {
+        String results[] = {
+                "Zero", "Negative five", "One hundred and one", "One thousand and five",
+                "One thousand one hundred and five", "One million two thousand and five",
+                "Negative one million and one", "Two hundred million eighty thousand"
+        };
+
+        compare(EnglishLanguagePack.BRITISH, results);
+    }
+
+    @Test
+    void convertAmericanEnglish() {
+        String results[] = {
+                "Zero", "Negative five", "One hundred one", "One thousand five", "One thousand one hundred five",
+                "One million two thousand five", "Negative one million one", "Two hundred million eighty thousand"
+        };
+
+        compare(EnglishLanguagePack.AMERICAN, results);
+    }
+
+    @Test
+    void convertFrench() {
+        String results[] = {
+                "Z\u00e9ro", "Moins cinq", "Cent un", "Mille cinq", "Mille cent cinq", "Un million deux mille cinq",
+                "Moins un million un", "Deux cents millions quatre-vingt mille"
+        };
+
+        compare(FrenchLanguagePack.FRENCH, results);
+    }
+
+    @Test
+    void convertFrenchTensAndPlurals() {
+        long values[] = {17, 21, 71, 80, 81, 91, 99, 200, 280, 21000, 80000, 200000, 2000000, Integer.MIN_VALUE};
+        String results[] = {
+                "Dix-sept", "Vingt et un", "Soixante et onze", "Quatre-vingts", "Quatre-vingt-un", "Quatre-vingt-onze",
+                "Quatre-vingt-dix-neuf", "Deux cents", "Deux cent quatre-vingts", "Vingt et un mille",
+                "Quatre-vingt mille", "Deux cent mille", "Deux millions",
+                "Moins deux milliards cent quarante-sept millions quatre cent quatre-vingt-trois mille six cent quarante-huit"
+        };
+
+        IntegerToWordConverter convert = new IntegerToWordConverter(FrenchLanguagePack.FRENCH);
+        for (int i=0; i<values.length; i++) {
+            assertEquals(results[i], convert.convert(values[i]));
+        }
+        assertEquals("Moins neuf trillions deux cent vingt-trois billiards trois cent soixante-douze billions trente-six "
+                + "milliards huit cent cinquante-quatre millions sept cent soixante-quinze mille huit cent huit",
+                convert.convert(Long.MIN_VALUE));
+    }
+
+    @Test
+    void encodeAndLengthMatchConvert() {
+        LanguagePack packs[] = {
+                EnglishLanguagePack.STANDARD, EnglishLanguagePack.BRITISH, EnglishLanguagePack.AMERICAN,
+                FrenchLanguagePack.FRENCH
+        };
+
+        Random random = new Random(42);
+        for (LanguagePack pack : packs) {
+            IntegerToWordConverter convert = new IntegerToWordConverter(pack);
+            ByteBuffer buffer = ByteBuffer.allocate(convert.maxLongLength());
+            byte[] array = new byte[convert.maxLength() + 3];
+            for (int i=0; i<10000; i++) {
+                int value = i < 2000 ? i - 1000 : random.nextInt();
+                byte[] expected = convert.convert(value).getBytes(StandardCharsets.UTF_8);
+
+                buffer.clear();
+                assertEquals(expected.length, convert.encode(value, buffer));
+                assertEquals(new String(expected, StandardCharsets.UTF_8),
+                        new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+                assertEquals(expected.length, convert.encode(value, array, 3));
+                assertEquals(new String(expected, StandardCharsets.UTF_8),
+                        new String(array, 3, expected.length, StandardCharsets.UTF_8));
+                assertEquals(expected.length, convert.length(value));
+                assertTrue(expected.length <= convert.maxLength());
+
+                long longValue = random.nextLong();
+                buffer.clear();
+                assertEquals(convert.convert(longValue).getBytes(StandardCharsets.UTF_8).length,
+                        convert.encode(longValue, buffer));
+                assertEquals(buffer.position(), convert.length(longValue));
+            }
+        }
+    }
+
+    private static void compare(LanguagePack pack, String results[]) {
+        IntegerToWordConverter convert = new IntegerToWordConverter(pack);
+        for (int i=0; i<VALUES.length; i++) {
+            assertEquals(results[i], convert.convert(VALUES[i]));
+            assertEquals(results[i], convert.convert((int) VALUES[i]));
+        }
+    }
+}
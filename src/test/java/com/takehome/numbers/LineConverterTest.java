@@ -0,0 +1,62 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test converting a line of input into a line of output.
+ *
+ * @author jeff.snyder
+ */
+class LineConverterTest {
+
+    @Test
+    void convertValidLine() {
+        LineConverter converter = new LineConverter();
+        assertEquals("Negative seven thousand seven hundred and fifty four",
+                converter.convertLine(" -7754 ", new StringBuilder()).toString());
+    }
+
+    @Test
+    void convertInvalidLines() {
+        LineConverter converter = new LineConverter();
+        assertEquals("Error: Non-numeric character in input.",
+                converter.convertLine("43244gd", new StringBuilder()).toString());
+        assertEquals("Error: Number can not be stored in a 32 bit integer.",
+                converter.convertLine("00004954365461578493", new StringBuilder()).toString());
+        assertEquals("Error: No number for the given line.",
+                converter.convertLine(null, new StringBuilder()).toString());
+    }
+
+    @Test
+    void convertSliceAppends() {
+        LineConverter converter = new LineConverter();
+        StringBuilder out = new StringBuilder("> ");
+        assertEquals("> Forty five", converter.convertLine("3243,45,5434", 5, 7, out).toString());
+    }
+
+    @Test
+    void writeLongRecords() {
+        byte[] digits = "   0000000000042 ".getBytes(StandardCharsets.US_ASCII);
+        byte[] letters = "   123x5".getBytes(StandardCharsets.US_ASCII);
+        LongLineParser longLine = new LongLineParser();
+        ByteBuffer out = ByteBuffer.allocate(256);
+
+        longLine.append(digits, 0, 8);
+        longLine.append(digits, 8, digits.length);
+        new LineConverter().writeLongRecord(longLine, out);
+        assertEquals("Forty two" + System.lineSeparator(),
+                new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII));
+
+        out.clear();
+        LineConverter json = new LineConverter(null, OutputFormat.JSONL);
+        longLine.append(letters, 0, letters.length);
+        json.writeLongRecord(longLine, out);
+        assertEquals("{\"input\":\"   123x5\",\"error\":\"NON_NUMERIC\"}\n",
+                new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII));
+    }
+}
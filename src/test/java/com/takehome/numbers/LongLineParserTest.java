@@ -0,0 +1,74 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Test parsing long lines a piece at a time, which must agree with parsing the whole line.
+ *
+ * @author jeff.snyder
+ */
+class LongLineParserTest {
+
+    private static final String ZEROS = repeat('0', 300);
+    private static final String SPACES = repeat(' ', 300);
+
+    @Test
+    void parseLikeWholeLine() {
+        String[] lines = {
+                "", " ", SPACES, "0", ZEROS, "42", ZEROS + "42", SPACES + "7", SPACES + "7" + SPACES,
+                "-" + ZEROS + "2147483648", "-2147483649", ZEROS + "2147483647", "2147483648", "9999999999",
+                "10000000000", "1" + ZEROS, "1" + ZEROS + "x", "x" + ZEROS, ZEROS + "4 2", "42 " + SPACES + "x",
+                "-", "- 1", "-" + SPACES, "--1", "+1", "4\u00e92", SPACES + "-" + ZEROS + SPACES, "\t12\t"
+        };
+
+        ParseInteger parse = new ParseInteger();
+        LongLineParser longLine = new LongLineParser();
+        for (String line : lines) {
+            byte[] bytes = line.getBytes(StandardCharsets.ISO_8859_1);
+            ParseResult expected = new ParseResult();
+            ParseStatus status = parse.tryParseIntegerFromBytes(bytes, 0, bytes.length, expected);
+
+            // Split into pieces of every size, the parser being reused for each line
+            for (int piece=1; piece<=Math.max(1, bytes.length); piece*=3) {
+                for (int i=0; i<bytes.length; i+=piece) {
+                    longLine.append(bytes, i, Math.min(bytes.length, i + piece));
+                }
+                longLine.append(bytes, 0, 0);
+
+                ParseResult result = new ParseResult();
+                assertEquals(status, longLine.finish(result), line);
+                if (status == ParseStatus.OK) {
+                    assertEquals(expected.getValue(), result.getValue(), line);
+                }
+                assertFalse(longLine.inLine());
+            }
+        }
+    }
+
+    @Test
+    void keepHeadAndLength() {
+        byte[] bytes = (ZEROS + "42\r").getBytes(StandardCharsets.US_ASCII);
+        LongLineParser longLine = new LongLineParser();
+        longLine.append(bytes, 0, 100);
+        longLine.append(bytes, 100, bytes.length);
+        longLine.finish(new ParseResult());
+
+        assertEquals(302, longLine.length());
+        assertEquals(LineConverter.MAX_LINE_LENGTH, longLine.headLength());
+        assertEquals(ZEROS.substring(0, LineConverter.MAX_LINE_LENGTH),
+                new String(longLine.head(), 0, longLine.headLength(), StandardCharsets.US_ASCII));
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i=0; i<count; i++) {
+            text.append(c);
+        }
+        return text.toString();
+    }
+}
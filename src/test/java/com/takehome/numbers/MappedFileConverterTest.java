@@ -0,0 +1,89 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test converting a memory mapped file in chunks on several threads.
+ *
+ * @author jeff.snyder
+ */
+class MappedFileConverterTest {
+
+    @Test
+    void convertInOrderAcrossChunks() throws IOException {
+        StringBuilder data = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        LineConverter converter = new LineConverter();
+        for (int i=-5000; i<5000; i+=3) {
+            String line = (i % 7 == 0) ? i + "x" : String.valueOf(i * 1013);
+            data.append(line).append('\n');
+            converter.convertLine(line, expected).append(System.lineSeparator());
+        }
+
+        // Small chunks so there are many of them, more than can be waiting to be written
+        assertEquals(expected.toString(), convert(data.toString(), 4, 64));
+    }
+
+    @Test
+    void convertLineEndings() throws IOException {
+        String expected = "One" + System.lineSeparator() +
+                "Two" + System.lineSeparator() +
+                "Error: Non-numeric character in input." + System.lineSeparator() +
+                "Three" + System.lineSeparator();
+
+        // Windows line endings, an empty line and no line separator at the end of the file
+        assertEquals(expected, convert("1\r\n2\n\n3", 2, 4));
+    }
+
+    @Test
+    void convertLineLongerThanChunk() throws IOException {
+        StringBuilder zeros = new StringBuilder();
+        for (int i=0; i<1000; i++) {
+            zeros.append('0');
+        }
+        String data = "7\n" + zeros + "42\r\n8\n1" + zeros + "x\n" + zeros + "1";
+
+        // Longer than any line that is held whole, too
+        String expected = "Seven" + System.lineSeparator() +
+                "Forty two" + System.lineSeparator() +
+                "Eight" + System.lineSeparator() +
+                "Error: Non-numeric character in input." + System.lineSeparator() +
+                "One" + System.lineSeparator();
+        assertEquals(expected, convert(data, 3, 8));
+    }
+
+    @Test
+    void convertEmptyFile() throws IOException {
+        assertEquals("", convert("", 2, 8));
+    }
+
+    @Test
+    void convertMissingFile() {
+        MappedFileConverter converter = new MappedFileConverter(2);
+        assertThrows(IOException.class,
+                ()-> converter.convert(Paths.get("does-not-exist.txt"), new ByteArrayOutputStream()));
+    }
+
+    private String convert(String data, int threads, int chunkSize) throws IOException {
+        Path file = Files.createTempFile("numbers", ".txt");
+        try {
+            Files.write(file, data.getBytes(StandardCharsets.US_ASCII));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new MappedFileConverter(threads, chunkSize).convert(file, out);
+            return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -2,7 +2,19 @@ package com.takehome.numbers;
 
 import org.junit.jupiter.api.Test;
 
+import javax.management.ObjectName;
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -91,11 +103,57 @@ class NumbersTest {
         }
 
         String results[] = {
-                "usage: numbers [-h] [-n <arg>] [<integer1> <integer2>...]",
+                "usage: numbers [options] [<integer1> <integer2>...]",
                 "Converts integers into English words.",
+                "    --batch <dir|glob>           Convert every file in a directory, or",
+                "                                 matching a glob such as 'feeds/*.txt',",
+                "                                 each into a file of the same name plus",
+                "                                 .words (ignored if integers on command",
+                "                                 line)",
+                "    --cache                      Cache the words for the integers",
+                "                                 converted, for input where a few integers",
+                "                                 are repeated often (not for a range or",
+                "                                 client)",
+                "    --cache-capacity <entries>   Number of integers the cache holds, also",
+                "                                 turning the cache on. Range: 1-16777216,",
+                "                                 Default: 65536",
+                "    --connect <port>             Have the server on this port convert the",
+                "                                 integers on the command line or standard",
+                "                                 input",
+                "    --format <format>            Format of the output: text, jsonl, csv or",
+                "                                 binary (not for a range or server).",
+                "                                 Default: text",
                 " -h,--help",
-                " -n,--count <arg>   Number of integers to be read from standard input",
-                "                    (ignored if integers on command line). Range: 1-1000"
+                " -i,--input <file>               File of integers, one per line and",
+                "                                 optionally gzip compressed, to be",
+                "                                 converted using all processors (ignored",
+                "                                 if integers on command line)",
+                " -n,--count <arg>                Number of integers to be read from",
+                "                                 standard input (ignored if integers on",
+                "                                 command line). Range: 1-1000",
+                "    --output-compress <format>   Compress the output as it is written, on",
+                "                                 a thread of its own: gzip (not for a",
+                "                                 server)",
+                "    --output-dir <dir>           Directory the output files of a batch are",
+                "                                 written to. Default: the directory of",
+                "                                 each file",
+                " -r,--range <start..end>         Convert every integer from start to end,",
+                "                                 inclusive (ignored if integers on command",
+                "                                 line)",
+                " -s,--stream                     Convert every line read from standard",
+                "                                 input, which may be gzip compressed,",
+                "                                 until the end of input (ignored if",
+                "                                 integers on command line)",
+                "    --serve <port>               Run a server converting lines sent to",
+                "                                 this port on the loopback interface,",
+                "                                 until stopped",
+                "    --stats                      Print statistics of the lines converted,",
+                "                                 and of each stage of converting a stream,",
+                "                                 to standard error (also published over",
+                "                                 JMX while running)",
+                " -t,--threads <arg>              Number of threads converting an input",
+                "                                 file, stream or batch. Default: number of",
+                "                                 processors"
         };
 
         compareOutput(results, out.toString());
@@ -241,6 +299,507 @@ class NumbersTest {
         compareOutput(results, out.toString());
     }
 
+    @Test
+    void streamPastCountLimit() {
+        PrintStream saveOut = System.out;
+        InputStream saveIn = System.in;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // More lines than can be requested with a count, with the last line not terminated
+        StringBuilder data = new StringBuilder();
+        String results[] = new String[1502];
+        IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+        for (int i=0; i<1500; i++) {
+            data.append(i * 1001).append('\n');
+            results[i] = converter.convert(i * 1001);
+        }
+        data.append("15d\n-10");
+        results[1500] = "Error: Non-numeric character in input.";
+        results[1501] = "Negative ten";
+
+        try {
+            InputStream testInput = new ByteArrayInputStream(data.toString().getBytes("UTF-8"));
+
+            System.setIn(testInput);
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--stream"});
+        } catch (UnsupportedEncodingException e) {
+            fail("Bad setup");
+        } finally {
+            System.setOut(saveOut);
+            System.setIn(saveIn);
+        }
+
+        compareOutput(results, out.toString());
+    }
+
+    @Test
+    void streamStats() {
+        PrintStream saveOut = System.out;
+        PrintStream saveErr = System.err;
+        InputStream saveIn = System.in;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        try {
+            System.setIn(new ByteArrayInputStream("45\n-7754\n".getBytes("UTF-8")));
+            System.setOut(new PrintStream(out));
+            System.setErr(new PrintStream(err));
+
+            Numbers.main(new String[]{"--stream", "--threads", "2", "--stats"});
+        } catch (UnsupportedEncodingException e) {
+            fail("Bad setup");
+        } finally {
+            System.setOut(saveOut);
+            System.setErr(saveErr);
+            System.setIn(saveIn);
+        }
+
+        String results[] = {
+                "Forty five",
+                "Negative seven thousand seven hundred and fifty four"
+        };
+
+        compareOutput(results, out.toString());
+        assertTrue(err.toString().startsWith("Pipeline: 1 reader, 2 workers, 1 writer"));
+        assertTrue(err.toString().contains("Conversions: 2 lines read, 2 converted"));
+    }
+
+    @Test
+    void streamStatsAfterFailedInput() throws Exception {
+        PrintStream saveOut = System.out;
+        PrintStream saveErr = System.err;
+        InputStream saveIn = System.in;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        // Some lines and then the input fails
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream("45\n-7754\n".getBytes("UTF-8")),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Input failed");
+                    }
+                });
+
+        try {
+            System.setIn(failing);
+            System.setOut(new PrintStream(out));
+            System.setErr(new PrintStream(err));
+
+            Numbers.main(new String[]{"--stream", "--stats"});
+        } finally {
+            System.setOut(saveOut);
+            System.setErr(saveErr);
+            System.setIn(saveIn);
+        }
+
+        assertTrue(out.toString().contains("Error: Problem reading from standard input."));
+        assertTrue(err.toString().contains("Conversions: "), err.toString());
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(
+                new ObjectName(ConversionMetrics.OBJECT_NAME)));
+    }
+
+    @Test
+    void connectWithIntegers() throws Exception {
+        PrintStream saveOut = System.out;
+        InputStream saveIn = System.in;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Standard input is not read when the integers are on the command line
+        InputStream unread = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Standard input read");
+            }
+        };
+
+        try (ConversionServer server = new ConversionServer(0)) {
+            Thread serving = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            serving.start();
+            try {
+                System.setIn(unread);
+                System.setOut(new PrintStream(out));
+
+                Numbers.main(new String[]{"--connect", String.valueOf(server.getPort()), "42", "-7"});
+            } finally {
+                System.setOut(saveOut);
+                System.setIn(saveIn);
+                server.close();
+                serving.join();
+            }
+        }
+
+        assertEquals("Forty two" + System.lineSeparator() + "Negative seven" + System.lineSeparator(), out.toString());
+    }
+
+    @Test
+    void inputFile() throws IOException {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Path file = Files.createTempFile("numbers", ".txt");
+        try {
+            Files.write(file, "45\n3243\n-7754\n000034\n43244gd\n".getBytes("UTF-8"));
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--input", file.toString(), "--threads", "2"});
+        } finally {
+            System.setOut(saveOut);
+            Files.delete(file);
+        }
+
+        String results[] = {
+                "Forty five",
+                "Three thousand two hundred and forty three",
+                "Negative seven thousand seven hundred and fifty four",
+                "Thirty four",
+                "Error: Non-numeric character in input."
+        };
+
+        compareOutput(results, out.toString());
+    }
+
+    @Test
+    void invalidThreads() {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"-i", "numbers.txt", "-t", "0"});
+        } finally {
+            System.setOut(saveOut);
+        }
+
+        assertEquals("Error: Invalid argument for t, must be a positive integer.", out.toString().trim());
+    }
+
+    @Test
+    void range() {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--range", "-1001..-999"});
+        } finally {
+            System.setOut(saveOut);
+        }
+
+        String results[] = {
+                "Negative one thousand and one",
+                "Negative one thousand",
+                "Negative nine hundred and ninety nine"
+        };
+
+        compareOutput(results, out.toString());
+    }
+
+    @Test
+    void invalidRange() {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"-r", "5..3"});
+        } finally {
+            System.setOut(saveOut);
+        }
+
+        assertEquals("Error: Invalid argument for r, must be <start>..<end> where start is not after end.",
+                out.toString().trim());
+    }
+
+    @Test
+    void rangeWithStats() {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--stats", "--range", "1..3"});
+        } finally {
+            System.setOut(saveOut);
+        }
+
+        assertEquals("Error: Invalid option stats, there are no lines to count when converting a range.",
+                out.toString().trim());
+    }
+
+    @Test
+    void invalidPort() {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--serve", "65536"});
+        } finally {
+            System.setOut(saveOut);
+        }
+
+        assertEquals("Error: Invalid argument for serve, must be a port number between 0 and 65535.",
+                out.toString().trim());
+    }
+
+    @Test
+    void jsonLinesFormat() {
+        PrintStream saveOut = System.out;
+        InputStream saveIn = System.in;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setIn(new ByteArrayInputStream("45\n-7754\n12a\n".getBytes(StandardCharsets.UTF_8)));
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--stream", "--format", "JSONL"});
+        } finally {
+            System.setOut(saveOut);
+            System.setIn(saveIn);
+        }
+
+        assertEquals("{\"input\":\"45\",\"value\":45,\"words\":\"Forty five\"}\n"
+                + "{\"input\":\"-7754\",\"value\":-7754,\"words\":\"Negative seven thousand seven hundred and fifty four\"}\n"
+                + "{\"input\":\"12a\",\"error\":\"NON_NUMERIC\"}\n", out.toString());
+    }
+
+    @Test
+    void csvFormat() {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--format", "csv", "101", "1,000", "3000000000"});
+        } finally {
+            System.setOut(saveOut);
+        }
+
+        assertEquals("101,101,One hundred and one,\r\n\"1,000\",,,NON_NUMERIC\r\n3000000000,,,OVERFLOW\r\n",
+                out.toString());
+    }
+
+    @Test
+    void invalidFormat() {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--format", "xml", "1"});
+        } finally {
+            System.setOut(saveOut);
+        }
+
+        assertEquals("Error: Invalid argument for format, must be one of text, jsonl, csv or binary.",
+                out.toString().trim());
+    }
+
+    @Test
+    void cache() {
+        PrintStream saveOut = System.out;
+        PrintStream saveErr = System.err;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+            System.setErr(new PrintStream(err));
+
+            Numbers.main(new String[]{"--cache-capacity", "100", "--stats", "45", "12a", "45"});
+        } finally {
+            System.setOut(saveOut);
+            System.setErr(saveErr);
+        }
+
+        String results[] = {
+                "Forty five",
+                "Error: " + ParseInteger.NON_NUMERIC,
+                "Forty five"
+        };
+
+        compareOutput(results, out.toString());
+        assertTrue(err.toString().contains("Cache: capacity 128, 1 hits, 1 misses, 0 evictions"));
+    }
+
+    @Test
+    void invalidCacheCapacity() {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--cache-capacity", "0", "1"});
+        } finally {
+            System.setOut(saveOut);
+        }
+
+        assertEquals("Error: Invalid argument for cache-capacity, must be a positive integer up to 16777216.",
+                out.toString().trim());
+    }
+
+    @Test
+    void convertLines() {
+        List<String> lines = Arrays.asList("45", "12a", null, " -7754 ", "3000000000");
+        String results[] = {
+                "Forty five",
+                "Error: " + ParseInteger.NON_NUMERIC,
+                "Error: " + LineConverter.NO_NUMBER,
+                "Negative seven thousand seven hundred and fifty four",
+                "Error: " + ParseInteger.TOO_LARGE
+        };
+
+        assertEquals(Arrays.asList(results), Numbers.convertLines(lines.stream()).collect(Collectors.toList()));
+    }
+
+    @Test
+    void convertLinesInParallel() {
+        List<String> lines = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+        for (int i=-50000; i<50000; i++) {
+            lines.add(String.valueOf(i * 7919));
+            expected.add(converter.convert(i * 7919));
+        }
+
+        Stream<String> output = Numbers.convertLines(lines.parallelStream());
+        assertTrue(output.isParallel());
+        assertEquals(expected, output.collect(Collectors.toList()));
+        assertEquals(lines.size(), Numbers.convertLines(lines.stream()).spliterator().getExactSizeIfKnown());
+    }
+
+    @Test
+    void compressedInputAndOutput() throws IOException {
+        PrintStream saveOut = System.out;
+        InputStream saveIn = System.in;
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("45\n-7754\n".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setIn(new ByteArrayInputStream(compressed.toByteArray()));
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--stream", "--output-compress", "gzip"});
+        } finally {
+            System.setOut(saveOut);
+            System.setIn(saveIn);
+        }
+
+        String results[] = {
+                "Forty five",
+                "Negative seven thousand seven hundred and fifty four"
+        };
+
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                decompressed.write(buffer, 0, count);
+            }
+        }
+        compareOutput(results, decompressed.toString("US-ASCII"));
+    }
+
+    @Test
+    void invalidOutputCompress() {
+        PrintStream saveOut = System.out;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--output-compress", "zstd", "1"});
+        } finally {
+            System.setOut(saveOut);
+        }
+
+        assertEquals("Error: Invalid argument for output-compress, must be gzip.", out.toString().trim());
+    }
+
+    @Test
+    void batch() throws IOException {
+        PrintStream saveOut = System.out;
+
+        Path directory = Files.createTempDirectory("numbers-batch");
+        Path output = directory.resolve("out");
+        try {
+            Files.write(directory.resolve("a.txt"), "45\n".getBytes(StandardCharsets.US_ASCII));
+            Files.write(directory.resolve("b.txt"), "-7754\n".getBytes(StandardCharsets.US_ASCII));
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                System.setOut(new PrintStream(out));
+
+                Numbers.main(new String[]{"--batch", directory + "/*.txt", "--output-dir", output.toString(),
+                        "-t", "2"});
+            } finally {
+                System.setOut(saveOut);
+            }
+
+            String report[] = out.toString().split(System.lineSeparator());
+            assertEquals(3, report.length);
+            assertTrue(report[0].startsWith(directory.resolve("a.txt") + " -> " + output.resolve("a.txt.words")));
+            assertTrue(report[1].startsWith(directory.resolve("b.txt") + " -> " + output.resolve("b.txt.words")));
+            assertTrue(report[2].startsWith("Batch: 2 files (0 failed), 2 lines in "));
+
+            compareOutput(new String[]{"Forty five"},
+                    new String(Files.readAllBytes(output.resolve("a.txt.words")), StandardCharsets.US_ASCII));
+            compareOutput(new String[]{"Negative seven thousand seven hundred and fifty four"},
+                    new String(Files.readAllBytes(output.resolve("b.txt.words")), StandardCharsets.US_ASCII));
+        } finally {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : paths.sorted((a, b) -> b.compareTo(a)).collect(Collectors.toList())) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchWithoutFiles() throws IOException {
+        PrintStream saveOut = System.out;
+
+        Path directory = Files.createTempDirectory("numbers-batch");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out));
+
+            Numbers.main(new String[]{"--batch", directory + "/*.txt"});
+        } finally {
+            System.setOut(saveOut);
+            Files.delete(directory);
+        }
+
+        assertEquals("No files found for the batch " + directory + "/*.txt.", out.toString().trim());
+    }
+
     private void compareOutput(String[] expected, String actual) {
 
         int index = 0;
@@ -262,4 +821,4 @@ class NumbersTest {
             fail("Not enough output to match.");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test writing the record for a line in each output format.
+ *
+ * @author jeff.snyder
+ */
+class OutputFormatTest {
+
+    @Test
+    void textMatchesConvertLine() {
+        assertEquals("One hundred and one" + System.lineSeparator(), record(OutputFormat.TEXT, "101"));
+        assertEquals("Error: Non-numeric character in input." + System.lineSeparator(), record(OutputFormat.TEXT, "x"));
+        assertEquals("Error: No number for the given line." + System.lineSeparator(), record(OutputFormat.TEXT, null));
+    }
+
+    @Test
+    void jsonLines() {
+        assertEquals("{\"input\":\" -2147483648 \",\"value\":-2147483648,\"words\":\"Negative two billion one hundred "
+                + "forty seven million four hundred eighty three thousand six hundred and forty eight\"}\n",
+                record(OutputFormat.JSONL, " -2147483648 "));
+        assertEquals("{\"input\":\"0\",\"value\":0,\"words\":\"Zero\"}\n", record(OutputFormat.JSONL, "0"));
+        assertEquals("{\"input\":\"\",\"error\":\"EMPTY\"}\n", record(OutputFormat.JSONL, ""));
+        assertEquals("{\"input\":\"99999999999\",\"error\":\"OVERFLOW\"}\n", record(OutputFormat.JSONL, "99999999999"));
+        assertEquals("{\"input\":null,\"error\":\"NO_NUMBER\"}\n", record(OutputFormat.JSONL, null));
+
+        // Quotes, backslashes and control characters are escaped, other characters are copied
+        assertEquals("{\"input\":\"\\\"a\\\\b\\u0009\\u001f\u00e9\",\"error\":\"NON_NUMERIC\"}\n",
+                record(OutputFormat.JSONL, "\"a\\b\t\u001f\u00e9"));
+    }
+
+    @Test
+    void csv() {
+        assertEquals("-15,-15,Negative fifteen,\r\n", record(OutputFormat.CSV, "-15"));
+        assertEquals(" 7 ,7,Seven,\r\n", record(OutputFormat.CSV, " 7 "));
+        assertEquals("\"1,000\",,,NON_NUMERIC\r\n", record(OutputFormat.CSV, "1,000"));
+        assertEquals("\"say \"\"12\"\"\",,,NON_NUMERIC\r\n", record(OutputFormat.CSV, "say \"12\""));
+        assertEquals(",,,NO_NUMBER\r\n", record(OutputFormat.CSV, null));
+    }
+
+    @Test
+    void binary() {
+        ByteBuffer buffer = write(OutputFormat.BINARY, "-40");
+        buffer.flip();
+        assertEquals(buffer.remaining() - 4, buffer.getInt());
+        assertEquals(ParseStatus.OK.ordinal(), buffer.get());
+        assertEquals(-40, buffer.getInt());
+        assertEquals(3, buffer.getInt());
+        assertEquals("-40", string(buffer, 3));
+        assertEquals(14, buffer.getInt());
+        assertEquals("Negative forty", string(buffer, 14));
+        assertEquals(0, buffer.remaining());
+
+        buffer = write(OutputFormat.BINARY, "4x");
+        buffer.flip();
+        assertEquals(15, buffer.getInt());
+        assertEquals(ParseStatus.NON_NUMERIC.ordinal(), buffer.get());
+        assertEquals(0, buffer.getInt());
+        assertEquals(2, buffer.getInt());
+        assertEquals("4x", string(buffer, 2));
+        assertEquals(0, buffer.getInt());
+        assertEquals(0, buffer.remaining());
+
+        buffer = write(OutputFormat.BINARY, null);
+        buffer.flip();
+        assertEquals(13, buffer.getInt());
+        assertEquals(ParseStatus.values().length, buffer.get());
+        assertEquals(0, buffer.getInt());
+        assertEquals(-1, buffer.getInt());
+        assertEquals(0, buffer.getInt());
+    }
+
+    @Test
+    void truncatedInput() {
+        StringBuilder zeros = new StringBuilder();
+        for (int i=0; i<200; i++) {
+            zeros.append('0');
+        }
+        byte[] bytes = ("\"" + zeros + "12").getBytes(StandardCharsets.US_ASCII);
+        String head = zeros.substring(0, LineConverter.MAX_LINE_LENGTH - 1);
+
+        // Only the first bytes of the input are echoed, the rest being marked as left out
+        assertEquals("\"\"\"" + head + "...\",,,NON_NUMERIC\r\n", record(OutputFormat.CSV, bytes, 0));
+        assertEquals(head + "0...,12,Twelve,\r\n", record(OutputFormat.CSV, bytes, 1));
+
+        ByteBuffer buffer = writeLong(OutputFormat.BINARY, bytes, 0);
+        buffer.flip();
+        assertEquals(buffer.remaining() - 4, buffer.getInt());
+        assertEquals(0x80 | ParseStatus.NON_NUMERIC.ordinal(), buffer.get() & 0xff);
+        assertEquals(0, buffer.getInt());
+        assertEquals(LineConverter.MAX_LINE_LENGTH, buffer.getInt());
+        assertEquals("\"" + head, string(buffer, LineConverter.MAX_LINE_LENGTH));
+        assertEquals(bytes.length, buffer.getLong());
+        assertEquals(0, buffer.getInt());
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void maxLengthCoversEscaping() {
+        String worst = "\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\"\"\"\"";
+        for (OutputFormat format : OutputFormat.values()) {
+            LineConverter converter = new LineConverter(null, format);
+            byte[] line = worst.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(converter.maxRecordLength(line.length));
+            converter.writeRecord(line, 0, line.length, buffer);
+
+            line = "-1373373373".getBytes(StandardCharsets.UTF_8);
+            buffer = ByteBuffer.allocate(converter.maxRecordLength(line.length));
+            converter.writeRecord(line, 0, line.length, buffer);
+            assertTrue(buffer.position() > LineConverter.MAX_LENGTH);
+        }
+    }
+
+    private static String record(OutputFormat format, String line) {
+        ByteBuffer buffer = write(format, line);
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer write(OutputFormat format, String line) {
+        LineConverter converter = new LineConverter(null, format);
+        if (line == null) {
+            ByteBuffer buffer = ByteBuffer.allocate(converter.maxRecordLength(0));
+            converter.writeMissingRecord(buffer);
+            return buffer;
+        }
+
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(converter.maxRecordLength(bytes.length));
+        converter.writeRecord(bytes, 0, bytes.length, buffer);
+        return buffer;
+    }
+
+    private static String record(OutputFormat format, byte[] line, int start) {
+        ByteBuffer buffer = writeLong(format, line, start);
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Write the record for a line too long to hold, from the start given, parsing it a few bytes at a time.
+     */
+    private static ByteBuffer writeLong(OutputFormat format, byte[] line, int start) {
+        LineConverter converter = new LineConverter(null, format);
+        LongLineParser longLine = new LongLineParser();
+        for (int i=start; i<line.length; i+=7) {
+            longLine.append(line, i, Math.min(line.length, i + 7));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(converter.maxRecordLength(LineConverter.MAX_LINE_LENGTH));
+        converter.writeLongRecord(longLine, buffer);
+        return buffer;
+    }
+
+    private static String string(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
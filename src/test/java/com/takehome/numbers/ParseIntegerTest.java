@@ -3,6 +3,11 @@ package com.takehome.numbers;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -67,4 +72,197 @@ class ParseIntegerTest {
         assertEquals(101, parse.parseIntegerFromString("0000000000000000000000000101"));
         assertEquals(-110, parse.parseIntegerFromString("-0000000000000000000000110"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseJustOutsideRangeFromString() {
+        assertThrows(ArithmeticException.class, ()->parse.parseIntegerFromString("2147483648"));
+        assertThrows(ArithmeticException.class, ()->parse.parseIntegerFromString("-2147483649"));
+        assertEquals(Integer.MIN_VALUE, parse.parseIntegerFromString("-0002147483648"));
+    }
+
+    @Test
+    void parseNonNumericTakesPrecedenceOverTooLong() {
+        NumberFormatException e = assertThrows(NumberFormatException.class,
+                ()->parse.parseIntegerFromString("12345678901234567890x"));
+        assertEquals("Non-numeric character in input.", e.getMessage());
+    }
+
+    @Test
+    void parseWhiteSpaceAndSignFromString() {
+        assertEquals(42, parse.parseIntegerFromString(" \t42\n"));
+        assertEquals(0, parse.parseIntegerFromString("-0"));
+        assertThrows(NumberFormatException.class, ()->parse.parseIntegerFromString(""));
+        assertThrows(NumberFormatException.class, ()->parse.parseIntegerFromString("   "));
+        assertThrows(NumberFormatException.class, ()->parse.parseIntegerFromString("-"));
+        assertThrows(NumberFormatException.class, ()->parse.parseIntegerFromString("4 2"));
+    }
+
+    @Test
+    void parseSlices() {
+        String line = "12,-0034, 56 ";
+        assertEquals(12, parse.parseIntegerFromChars(line, 0, 2));
+        assertEquals(-34, parse.parseIntegerFromChars(line.toCharArray(), 3, 8));
+        assertEquals(56, parse.parseIntegerFromBytes(line.getBytes(StandardCharsets.US_ASCII), 9, 13));
+        assertThrows(NumberFormatException.class, ()->parse.parseIntegerFromChars(line, 0, 3));
+        assertThrows(NumberFormatException.class, ()->parse.parseIntegerFromBytes(new byte[]{'1', (byte) 0xb1}, 0, 2));
+    }
+
+    @Test
+    void parseMinMaxLongFromString() {
+        assertEquals(Long.MIN_VALUE, parse.parseLongFromString(String.valueOf(Long.MIN_VALUE)));
+        assertEquals(Long.MAX_VALUE, parse.parseLongFromString(String.valueOf(Long.MAX_VALUE)));
+        assertEquals(2147483648L, parse.parseLongFromString("2147483648"));
+        assertEquals(-1, parse.parseLongFromString(" -0000000000000000000000001 "));
+    }
+
+    @Test
+    void parseLongJustOutsideRangeFromString() {
+        ArithmeticException e = assertThrows(ArithmeticException.class,
+                ()->parse.parseLongFromString("9223372036854775808"));
+        assertEquals("Number can not be stored in a 64 bit integer.", e.getMessage());
+        assertThrows(ArithmeticException.class, ()->parse.parseLongFromString("-9223372036854775809"));
+        assertThrows(NumberFormatException.class, ()->parse.parseLongFromString("99999999999999999999x"));
+        assertThrows(NumberFormatException.class, ()->parse.parseLongFromString("-"));
+    }
+
+    @Test
+    void tryParseStatusFromString() {
+        ParseResult result = new ParseResult();
+        assertEquals(ParseStatus.OK, parse.tryParseIntegerFromString(" -000042 ", result));
+        assertEquals(-42, result.getValue());
+        assertTrue(result.isOk());
+
+        assertEquals(ParseStatus.EMPTY, parse.tryParseIntegerFromString(" \t", result));
+        assertEquals(ParseStatus.EMPTY, parse.tryParseIntegerFromString("", result));
+        assertEquals(ParseStatus.NON_NUMERIC, parse.tryParseIntegerFromString("-", result));
+        assertEquals(ParseStatus.NON_NUMERIC, parse.tryParseIntegerFromString("43244gd", result));
+        assertEquals(ParseStatus.NON_NUMERIC, parse.tryParseIntegerFromString("12345678901234567890x", result));
+        assertEquals(ParseStatus.OVERFLOW, parse.tryParseIntegerFromString("2147483648", result));
+        assertEquals(ParseStatus.OVERFLOW, parse.tryParseIntegerFromString("-2147483649", result));
+        assertFalse(result.isOk());
+
+        assertEquals(ParseStatus.OK, parse.tryParseIntegerFromString(String.valueOf(Integer.MIN_VALUE), result));
+        assertEquals(Integer.MIN_VALUE, result.getValue());
+    }
+
+    @Test
+    void tryParseSlices() {
+        String line = "12,-0034, 56 ,x";
+        ParseResult result = new ParseResult();
+        assertEquals(ParseStatus.OK, parse.tryParseIntegerFromChars(line, 0, 2, result));
+        assertEquals(12, result.getValue());
+        assertEquals(ParseStatus.OK, parse.tryParseIntegerFromChars(line.toCharArray(), 3, 8, result));
+        assertEquals(-34, result.getValue());
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(ParseStatus.OK, parse.tryParseIntegerFromBytes(bytes, 9, 13, result));
+        assertEquals(56, result.getValue());
+        assertEquals(ParseStatus.NON_NUMERIC, parse.tryParseIntegerFromBytes(bytes, 13, 15, result));
+        assertEquals(ParseStatus.EMPTY, parse.tryParseIntegerFromChars(line, 2, 2, result));
+    }
+
+    @Test
+    void statusMessagesMatchExceptions() {
+        assertEquals(ParseInteger.NON_NUMERIC, ParseStatus.NON_NUMERIC.getMessage());
+        assertEquals(ParseInteger.NON_NUMERIC, ParseStatus.EMPTY.getMessage());
+        assertEquals(ParseInteger.TOO_LARGE, ParseStatus.OVERFLOW.getMessage());
+    }
+
+    @Test
+    void bytesMatchStringOnEveryEdgeCase() {
+        String inputs[] = {
+                "abc", "123c", "123c34", "123+5", "-12334=", "0-0",
+                "12345678911", "12345678901343464564", "0000000000000000000000000000012345678901343464564",
+                "-512345678911", "-1233456790325490835408656734",
+                "0", String.valueOf(Integer.MIN_VALUE), String.valueOf(Integer.MAX_VALUE),
+                "000001", "-000001", "00", "000000", "0000000000000000000000000000000000",
+                "0000000000000000000000000101", "-0000000000000000000000110",
+                "2147483648", "-2147483649", "-0002147483648", "12345678901234567890x",
+                " \t42\n", "-0", "", "   ", "-", "4 2", " -000042 ", " \t", "43244gd", "99999999999999999999x",
+                "12345678", "-12345678", "1234567x", "x2345678", "1234567812345678", "00000000:", "0000000/",
+                "99999999", "100000000", "2147483647 ", "21474836470", "-21474836480000000000000000x"
+        };
+
+        // Each input is parsed both on its own and in the middle of other bytes
+        ParseResult expected = new ParseResult();
+        ParseResult actual = new ParseResult();
+        for (String input : inputs) {
+            byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+            byte[] padded = ("12" + input + ",3").getBytes(StandardCharsets.US_ASCII);
+
+            ParseStatus status = parse.tryParseIntegerFromString(input, expected);
+            assertEquals(status, parse.tryParseIntegerFromBytes(bytes, 0, bytes.length, actual), input);
+            assertEquals(status, parse.tryParseIntegerFromBytes(padded, 2, padded.length - 2, actual), input);
+            if (status == ParseStatus.OK) {
+                assertEquals(expected.getValue(), actual.getValue(), input);
+                assertEquals(parse.parseIntegerFromString(input), parse.parseIntegerFromBytes(bytes, 0, bytes.length));
+            } else {
+                Class<? extends RuntimeException> failure = status == ParseStatus.OVERFLOW
+                        ? ArithmeticException.class : NumberFormatException.class;
+                RuntimeException e = assertThrows(failure, ()->parse.parseIntegerFromBytes(bytes, 0, bytes.length));
+                assertEquals(status.getMessage(), e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    void bytesMatchCharsAroundEightDigits() {
+        // Lengths either side of multiples of eight digits, with a bad character at any position
+        Random random = new Random(8);
+        ParseResult expected = new ParseResult();
+        ParseResult actual = new ParseResult();
+        for (int i=0; i<100000; i++) {
+            char chars[] = new char[1 + random.nextInt(26)];
+            for (int j=0; j<chars.length; j++) {
+                chars[j] = (char) ('0' + (random.nextInt(4) == 0 ? 0 : random.nextInt(10)));
+            }
+            if (random.nextBoolean()) {
+                chars[0] = '-';
+            }
+            if (random.nextInt(4) == 0) {
+                chars[random.nextInt(chars.length)] = (char) random.nextInt(128);
+            }
+            byte[] bytes = new String(chars).getBytes(StandardCharsets.US_ASCII);
+
+            ParseStatus status = parse.tryParseIntegerFromChars(chars, 0, chars.length, expected);
+            assertEquals(status, parse.tryParseIntegerFromBytes(bytes, 0, bytes.length, actual), new String(chars));
+            assertEquals(expected.getValue(), actual.getValue(), new String(chars));
+        }
+    }
+
+    @Test
+    void eightDigitsAtATime() {
+        assertEquals(12345678, ParseInteger.eightDigitsValue(load("12345678")));
+        assertEquals(0, ParseInteger.eightDigitsValue(load("00000000")));
+        assertEquals(99999999, ParseInteger.eightDigitsValue(load("99999999")));
+        assertEquals(7, ParseInteger.eightDigitsValue(load("00000007")));
+        assertEquals(70000000, ParseInteger.eightDigitsValue(load("70000000")));
+
+        // Only the ten digits pass, whichever of the eight bytes the other values are in
+        for (int position=0; position<ParseInteger.SWAR_DIGITS; position++) {
+            for (int b=0; b<256; b++) {
+                byte[] bytes = "55555555".getBytes(StandardCharsets.US_ASCII);
+                bytes[position] = (byte) b;
+                assertEquals(b >= '0' && b <= '9', ParseInteger.isEightDigits(load(bytes)), position + ": " + b);
+            }
+        }
+    }
+
+    @Test
+    void eightBytesAreLittleEndian() {
+        // Bytes with the high bit set too, which must not be sign extended into the other bytes
+        byte[] bytes = new byte[64];
+        new Random(42).nextBytes(bytes);
+        for (int i=0; i<=bytes.length - 8; i++) {
+            assertEquals(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong(i),
+                    ParseInteger.eightBytes(bytes, i));
+        }
+    }
+
+    private static long load(String digits) {
+        return load(digits.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long load(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong(0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.takehome.numbers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test converting ranges of integers, comparing every line with the conversion of each number on its own.
+ *
+ * @author jeff.snyder
+ */
+class RangeConverterTest {
+
+    @Test
+    void rangeMatchesConvert() throws IOException {
+        long ranges[][] = {
+                {-2100, 2100},
+                {2998950, 3001050},
+                {999999950, 1000001050},
+                {Long.MIN_VALUE, Long.MIN_VALUE + 1100},
+                {Long.MAX_VALUE - 1100, Long.MAX_VALUE}
+        };
+
+        // A small buffer so it is written many times for each range
+        RangeConverter range = new RangeConverter(IntegerToEnglishWordConverter.MAX_LONG_LENGTH + 2);
+        for (long[] r : ranges) {
+            assertArrayEquals(expected(r[0], r[1]), convert(range, r[0], r[1]));
+        }
+    }
+
+    @Test
+    void rangeRollsOverAnd() throws IOException {
+        String results[] = {
+                "Two million nine hundred ninety nine thousand nine hundred and ninety nine",
+                "Three million",
+                "Three million and one"
+        };
+
+        assertArrayEquals(results, convert(new RangeConverter(), 2999999, 3000001));
+    }
+
+    @Test
+    void rangeOfOne() throws IOException {
+        assertArrayEquals(new String[]{"Zero"}, convert(new RangeConverter(), 0, 0));
+    }
+
+    @Test
+    void invalidRange() {
+        RangeConverter range = new RangeConverter();
+        assertThrows(IllegalArgumentException.class, ()-> range.convert(5, 3, Channels.newChannel(System.out)));
+        assertThrows(IllegalArgumentException.class, ()-> new RangeConverter(10));
+    }
+
+    private static String[] convert(RangeConverter range, long start, long end) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        range.convert(start, end, Channels.newChannel(out));
+        String lines = new String(out.toByteArray(), StandardCharsets.US_ASCII);
+        assertEquals(System.lineSeparator(), lines.substring(lines.length() - System.lineSeparator().length()));
+        return lines.split(System.lineSeparator());
+    }
+
+    private static String[] expected(long start, long end) {
+        IntegerToEnglishWordConverter converter = new IntegerToEnglishWordConverter();
+        String results[] = new String[(int) (end - start + 1)];
+        for (int i=0; i<results.length; i++) {
+            results[i] = converter.convert(start + i);
+        }
+        return results;
+    }
+}